@@ -0,0 +1,34 @@
+package dev.doomsday.suitX.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String WORKLOAD = "workload";
+    public static final String MITIGATION_SUMMARY = "mitigationSummary";
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        // Short-lived: workload views only need to be fresh to the minute
+        cacheManager.registerCustomCache(WORKLOAD, Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(60))
+                .maximumSize(500)
+                .build());
+        // Dashboard summary counts, per user
+        cacheManager.registerCustomCache(MITIGATION_SUMMARY, Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(30))
+                .maximumSize(1000)
+                .build());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,77 @@
+package dev.doomsday.suitX.config;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+
+/**
+ * HTTP client for the Gemini API: pooled keep-alive connections, bounded timeouts and gzip.
+ *
+ * Built from Spring Boot's RestTemplateBuilder, so every call is timed as
+ * http.client.requests{client.name=generativelanguage.googleapis.com}; the pool itself is reported
+ * as httpcomponents.httpclient.pool.*{httpclient=gemini}. The API key is sent in the
+ * x-goog-api-key header rather than the query string, keeping it out of URLs and access logs.
+ */
+@Configuration
+public class GeminiClientConfig {
+
+    @Bean
+    public RestTemplate geminiRestTemplate(RestTemplateBuilder restTemplateBuilder,
+                                           CloseableHttpClient geminiHttpClient,
+                                           @Value("${gemini.api.key}") String apiKey) {
+        return restTemplateBuilder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(geminiHttpClient))
+                .defaultHeader("x-goog-api-key", apiKey)
+                .build();
+    }
+
+    /**
+     * Closed, with its pooled connections, when the context shuts down
+     */
+    @Bean
+    public CloseableHttpClient geminiHttpClient(MeterRegistry meterRegistry,
+                                                @Value("${gemini.http.connect-timeout-ms:5000}") long connectTimeoutMs,
+                                                @Value("${gemini.http.read-timeout-ms:120000}") long readTimeoutMs,
+                                                @Value("${gemini.http.max-connections:20}") int maxConnections,
+                                                @Value("${gemini.http.idle-timeout-ms:60000}") long idleTimeoutMs) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                // Every call goes to the same host
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        // Check connections idle for a while before reusing them
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "gemini").bindTo(meterRegistry);
+
+        // Content compression is on by default: requests ask for gzip and responses are inflated transparently
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        // Waiting for a free pooled connection
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        // Longest wait for the next bytes of a response; Gemini can think for a while before replying
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(idleTimeoutMs))
+                .build();
+    }
+}
@@ -1,5 +1,6 @@
 package dev.doomsday.suitX.config;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -11,9 +12,15 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.regex.Pattern;
 
 @Component
 public class JwtFilter extends OncePerRequestFilter {
+    // EventSource cannot set headers, so SSE streams pass a short-lived stream token
+    // (from POST /auth/stream-token) as a query parameter instead
+    private static final String STREAM_PATH = "/api/notifications/stream";
+    private static final Pattern JOB_EVENTS_PATH = Pattern.compile("/api/ai/jobs/[^/]+/events");
+
     private final JwtUtil jwtUtil;
 
     public JwtFilter(JwtUtil jwtUtil) {
@@ -25,18 +32,28 @@ public class JwtFilter extends OncePerRequestFilter {
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
         String authHeader = request.getHeader("Authorization");
+        String username = null;
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
-            String username = jwtUtil.extractUsername(token);
-
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(username, null, null);
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+            username = jwtUtil.extractUsername(authHeader.substring(7));
+        } else if (isStreamPath(request.getServletPath()) && request.getParameter("token") != null) {
+            try {
+                username = jwtUtil.extractStreamUsername(request.getParameter("token"));
+            } catch (JwtException e) {
+                // Expired stream token: answer 401 so the client fetches a new one and reconnects
             }
         }
+
+        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UsernamePasswordAuthenticationToken authToken =
+                    new UsernamePasswordAuthenticationToken(username, null, null);
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+        }
         filterChain.doFilter(request, response);
     }
+
+    private static boolean isStreamPath(String path) {
+        return STREAM_PATH.equals(path) || JOB_EVENTS_PATH.matcher(path).matches();
+    }
 }
\ No newline at end of file
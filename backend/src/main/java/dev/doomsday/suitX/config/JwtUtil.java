@@ -1,5 +1,6 @@
 package dev.doomsday.suitX.config;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -16,6 +17,12 @@ public class JwtUtil {
     private final String SECRET = "my-very-strong-secret-key-should-be-32chars!";
     private final long EXPIRATION = 1000 * 60 * 60; // 1 hour
 
+    // Stream tokens travel in SSE URLs, where proxies and access logs can see them, so they
+    // only open event streams and expire quickly; EventSource reconnects within this window
+    private static final String SCOPE_CLAIM = "scope";
+    private static final String STREAM_SCOPE = "stream";
+    private static final long STREAM_EXPIRATION = 1000 * 60; // 1 minute
+
     private Key getSigningKey() {
         return Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
     }
@@ -29,12 +36,40 @@ public class JwtUtil {
                 .compact();
     }
 
+    /**
+     * Short-lived token accepted only by the SSE stream endpoints
+     */
+    public String generateStreamToken(String username) {
+        return Jwts.builder()
+                .setSubject(username)
+                .claim(SCOPE_CLAIM, STREAM_SCOPE)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + STREAM_EXPIRATION))
+                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    /**
+     * Username of a regular session token; stream tokens are rejected
+     */
     public String extractUsername(String token) {
+        Claims claims = parseClaims(token);
+        return claims.get(SCOPE_CLAIM) == null ? claims.getSubject() : null;
+    }
+
+    /**
+     * Username of a stream token; session tokens are rejected so they never need to appear in a URL
+     */
+    public String extractStreamUsername(String token) {
+        Claims claims = parseClaims(token);
+        return STREAM_SCOPE.equals(claims.get(SCOPE_CLAIM)) ? claims.getSubject() : null;
+    }
+
+    private Claims parseClaims(String token) {
         return Jwts.parserBuilder()
                 .setSigningKey(getSigningKey())
                 .build()
                 .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+                .getBody();
     }
 }
\ No newline at end of file
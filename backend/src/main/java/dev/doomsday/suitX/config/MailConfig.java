@@ -0,0 +1,46 @@
+package dev.doomsday.suitX.config;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import dev.doomsday.suitX.service.PooledJavaMailSender;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Replaces Spring Boot's JavaMailSender with one that reuses SMTP connections.
+ * Still configured from the usual spring.mail.* properties.
+ */
+@Configuration
+@EnableConfigurationProperties(MailProperties.class)
+public class MailConfig {
+
+    @Bean
+    public JavaMailSender mailSender(MailProperties mailProperties,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.email.smtp.pool-size:${app.email.workers:2}}") int poolSize,
+                                     @Value("${app.email.smtp.max-messages-per-connection:100}") int maxMessagesPerConnection,
+                                     @Value("${app.email.smtp.idle-timeout-ms:30000}") long idleTimeoutMs) {
+        PooledJavaMailSender sender = new PooledJavaMailSender(meterRegistry, poolSize, maxMessagesPerConnection, idleTimeoutMs);
+        sender.setHost(mailProperties.getHost());
+        if (mailProperties.getPort() != null) {
+            sender.setPort(mailProperties.getPort());
+        }
+        sender.setUsername(mailProperties.getUsername());
+        sender.setPassword(mailProperties.getPassword());
+        sender.setProtocol(mailProperties.getProtocol());
+        sender.setDefaultEncoding(mailProperties.getDefaultEncoding() != null
+                ? mailProperties.getDefaultEncoding().name()
+                : StandardCharsets.UTF_8.name());
+        Properties javaMailProperties = new Properties();
+        javaMailProperties.putAll(mailProperties.getProperties());
+        sender.setJavaMailProperties(javaMailProperties);
+        return sender;
+    }
+}
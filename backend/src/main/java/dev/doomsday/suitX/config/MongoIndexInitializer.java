@@ -0,0 +1,136 @@
+package dev.doomsday.suitX.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.stereotype.Component;
+
+import dev.doomsday.suitX.model.AIAnalysisCacheEntry;
+import dev.doomsday.suitX.model.AIAnalysisJob;
+import dev.doomsday.suitX.model.ArchivedNotification;
+import dev.doomsday.suitX.model.EmailOutboxMessage;
+import dev.doomsday.suitX.model.Mitigation;
+import dev.doomsday.suitX.model.Notification;
+import dev.doomsday.suitX.model.Risk;
+import dev.doomsday.suitX.model.Task;
+import dev.doomsday.suitX.model.TaskAttachment;
+import dev.doomsday.suitX.model.TaskComment;
+
+/**
+ * Creates the annotated indexes that queries in this application depend on.
+ * Automatic index creation is off, so indexes for these entities are ensured at startup.
+ * A failure on one index (e.g. an equivalent index created by hand under another name)
+ * is logged and does not stop the application.
+ * TTL indexes are the exception: a plain or differently configured index on the same field
+ * is dropped first, since MongoDB will not create the TTL index next to it.
+ * Indexes listed in OBSOLETE_INDEXES were replaced or made redundant and are dropped if present.
+ */
+@Component
+public class MongoIndexInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoIndexInitializer.class);
+
+    private static final List<Class<?>> INDEXED_ENTITIES = List.of(
+        AIAnalysisCacheEntry.class,
+        AIAnalysisJob.class,
+        EmailOutboxMessage.class,
+        Mitigation.class,
+        Notification.class,
+        ArchivedNotification.class,
+        Risk.class,
+        Task.class,
+        TaskComment.class,
+        TaskAttachment.class
+    );
+
+    // Indexes no longer declared on the entity; each only cost writes
+    private static final Map<Class<?>, List<String>> OBSOLETE_INDEXES = Map.of(
+        // Covered by project_residual_idx, and every exposure query filters by project
+        Risk.class, List.of("residualScore"),
+        // Prefixes of user_read_created_id_idx and read_created_idx
+        Notification.class, List.of("user_read_created_idx", "isRead")
+    );
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoIndexInitializer(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        MongoMappingContext mappingContext = (MongoMappingContext) mongoTemplate.getConverter().getMappingContext();
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+
+        for (Class<?> entity : INDEXED_ENTITIES) {
+            IndexOperations indexOps = mongoTemplate.indexOps(entity);
+            dropObsoleteIndexes(indexOps, entity);
+            for (IndexDefinition index : resolver.resolveIndexFor(entity)) {
+                try {
+                    if (index.getIndexOptions().containsKey("expireAfterSeconds")) {
+                        ensureTtlIndex(indexOps, index, entity);
+                    } else {
+                        indexOps.createIndex(index);
+                    }
+                } catch (DataAccessException e) {
+                    logger.warn("Could not ensure index {} on {}: {}",
+                            index.getIndexOptions().get("name"), entity.getSimpleName(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void dropObsoleteIndexes(IndexOperations indexOps, Class<?> entity) {
+        List<String> obsolete = OBSOLETE_INDEXES.getOrDefault(entity, List.of());
+        if (obsolete.isEmpty()) {
+            return;
+        }
+        try {
+            for (IndexInfo existing : indexOps.getIndexInfo()) {
+                if (obsolete.contains(existing.getName())) {
+                    logger.info("Dropping obsolete index {} on {}", existing.getName(), entity.getSimpleName());
+                    indexOps.dropIndex(existing.getName());
+                }
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Could not drop obsolete indexes on {}: {}", entity.getSimpleName(), e.getMessage());
+        }
+    }
+
+    private void ensureTtlIndex(IndexOperations indexOps, IndexDefinition index, Class<?> entity) {
+        String name = index.getIndexOptions().getString("name");
+        Duration expireAfter = Duration.ofSeconds(
+                ((Number) index.getIndexOptions().get("expireAfterSeconds")).longValue());
+
+        for (IndexInfo existing : indexOps.getIndexInfo()) {
+            boolean sameFields = existing.isIndexForFields(index.getIndexKeys().keySet());
+            boolean matches = existing.getName().equals(name)
+                    && existing.getExpireAfter().equals(Optional.of(expireAfter));
+            if (sameFields && !matches) {
+                logger.info("Replacing index {} on {} with TTL index {}", existing.getName(), entity.getSimpleName(), name);
+                indexOps.dropIndex(existing.getName());
+            }
+        }
+        indexOps.createIndex(index);
+
+        boolean verified = indexOps.getIndexInfo().stream()
+                .anyMatch(info -> info.getName().equals(name) && info.getExpireAfter().isPresent());
+        if (!verified) {
+            logger.error("TTL index {} on {} is missing; expired documents will not be removed",
+                    name, entity.getSimpleName());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package dev.doomsday.suitX.config;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -26,6 +27,8 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())  // modern syntax
                 .authorizeHttpRequests(auth -> auth
             .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                        // Async dispatches complete already-authorized SSE responses
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
                         .requestMatchers("/health/**").permitAll()
                         .requestMatchers("/auth/**").permitAll()
                         .requestMatchers("/api/risks/**").permitAll()
@@ -1,14 +1,17 @@
 package dev.doomsday.suitX.controller;
 
+import dev.doomsday.suitX.dto.AIAnalysisJobDto;
 import dev.doomsday.suitX.dto.AIAnalysisRequest;
-import dev.doomsday.suitX.dto.AIAnalysisResponse;
-import dev.doomsday.suitX.service.GeminiAIService;
+import dev.doomsday.suitX.service.AIAnalysisJobService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.net.URI;
 import java.util.Map;
 
 @RestController
@@ -16,12 +19,19 @@ import java.util.Map;
 public class AIController {
 
     @Autowired
-    private GeminiAIService geminiAIService;
+    private AIAnalysisJobService analysisJobService;
 
+    /**
+     * Start an AI risk analysis of a form request in the background
+     * Returns 202 with the job; the analysis is in the job once it has finished
+     */
     @PostMapping("/analyze-risks")
     public ResponseEntity<?> analyzeProjectRisks(
             @RequestBody AIAnalysisRequest request,
             Authentication authentication) {
+        if (authentication == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
         
         try {
             // Validate request
@@ -46,11 +56,15 @@ public class AIController {
                 request.setProjectType("Software Development");
             }
 
-            // Call AI service
-            AIAnalysisResponse response = geminiAIService.analyzeProjectRisks(request);
-            
-            return ResponseEntity.ok(response);
+            AIAnalysisJobDto job = analysisJobService.submitRequestAnalysis(request, authentication.getName());
+            return ResponseEntity.accepted()
+                .location(URI.create("/api/ai/jobs/" + job.getId()))
+                .body(job);
             
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "30")
+                .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                 .body(Map.of(
@@ -60,6 +74,39 @@ public class AIController {
         }
     }
 
+    /**
+     * Get the status, and once finished the result, of an analysis job
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<AIAnalysisJobDto> getJob(@PathVariable String jobId, Authentication authentication) {
+        if (authentication == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return analysisJobService.getJob(jobId, authentication.getName())
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Stream "job" events for an analysis job until it finishes
+     * EventSource cannot set headers, so a stream token from POST /auth/stream-token is passed as ?token=
+     */
+    @GetMapping(value = "/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamJob(@PathVariable String jobId, Authentication authentication) {
+        if (authentication == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            SseEmitter emitter = analysisJobService.subscribe(jobId, authentication.getName());
+            return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no")
+                .header("Cache-Control", "no-cache")
+                .body(emitter);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @GetMapping("/health")
     public ResponseEntity<?> healthCheck() {
         return ResponseEntity.ok(Map.of(
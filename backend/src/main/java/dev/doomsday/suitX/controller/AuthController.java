@@ -4,6 +4,7 @@ import java.time.LocalDateTime;
 import java.util.Map;
 
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -54,4 +55,15 @@ public class AuthController {
                 })
                 .orElse(ResponseEntity.status(401).body(Map.of("error", "Invalid credentials")));
     }
+
+    /**
+     * Short-lived token for opening SSE streams, which must pass it in the URL
+     */
+    @PostMapping("/stream-token")
+    public ResponseEntity<Map<String, String>> streamToken(Authentication authentication) {
+        if (authentication == null) {
+            return ResponseEntity.status(401).build();
+        }
+        return ResponseEntity.ok(Map.of("token", jwtUtil.generateStreamToken(authentication.getName())));
+    }
 }
@@ -14,10 +14,15 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import dev.doomsday.suitX.dto.CursorPage;
+import dev.doomsday.suitX.dto.MitigationActionDto;
+import dev.doomsday.suitX.dto.MitigationActionResultDto;
 import dev.doomsday.suitX.dto.MitigationDto;
 import dev.doomsday.suitX.dto.MitigationSummaryDto;
+import dev.doomsday.suitX.service.MitigationActionService;
 import dev.doomsday.suitX.service.MitigationService;
 import lombok.RequiredArgsConstructor;
 
@@ -27,6 +32,7 @@ import lombok.RequiredArgsConstructor;
 public class MitigationController {
 
     private final MitigationService mitigationService;
+    private final MitigationActionService mitigationActionService;
 
     @GetMapping
     public ResponseEntity<List<MitigationDto>> getAllMitigations() {
@@ -35,14 +41,28 @@ public class MitigationController {
     }
 
     @GetMapping("/user")
-    public ResponseEntity<List<MitigationDto>> getMitigationsForUser(Authentication authentication) {
+    public ResponseEntity<CursorPage<MitigationDto>> getMitigationsForUser(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String priority,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + MitigationService.DEFAULT_PAGE_SIZE) int limit,
+            Authentication authentication) {
         if (authentication == null || authentication.getName() == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
         
-        String username = authentication.getName();
-        List<MitigationDto> mitigations = mitigationService.getMitigationsForUser(username);
-        return ResponseEntity.ok(mitigations);
+        try {
+            String username = authentication.getName();
+            CursorPage<MitigationDto> mitigations = mitigationService.getMitigationsForUser(
+                    username,
+                    status != null ? status.toUpperCase() : null,
+                    priority != null ? priority.toUpperCase() : null,
+                    cursor,
+                    limit);
+            return ResponseEntity.ok(mitigations);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/status/{status}")
@@ -126,9 +146,42 @@ public class MitigationController {
         }
     }
 
+    @PostMapping("/{id}/actions")
+    public ResponseEntity<MitigationActionResultDto> addAction(
+            @PathVariable String id,
+            @RequestBody MitigationActionDto actionDto) {
+        try {
+            MitigationActionResultDto result = mitigationActionService.addAction(id, actionDto);
+            return ResponseEntity.status(HttpStatus.CREATED).body(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PatchMapping("/{id}/actions/{actionId}")
+    public ResponseEntity<MitigationActionResultDto> updateAction(
+            @PathVariable String id,
+            @PathVariable String actionId,
+            @RequestBody MitigationActionDto actionDto) {
+        try {
+            MitigationActionResultDto result = mitigationActionService.updateAction(id, actionId, actionDto);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @GetMapping("/summary")
-    public ResponseEntity<MitigationSummaryDto> getMitigationSummary() {
-        MitigationSummaryDto summary = mitigationService.getMitigationSummary();
+    public ResponseEntity<MitigationSummaryDto> getMitigationSummary(Authentication authentication) {
+        if (authentication == null || authentication.getName() == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        
+        MitigationSummaryDto summary = mitigationService.getMitigationSummary(authentication.getName());
         return ResponseEntity.ok(summary);
     }
 }
\ No newline at end of file
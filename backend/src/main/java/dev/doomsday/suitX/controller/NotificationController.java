@@ -1,11 +1,16 @@
 package dev.doomsday.suitX.controller;
 
+import dev.doomsday.suitX.dto.CursorPage;
+import dev.doomsday.suitX.dto.NotificationSummaryDto;
 import dev.doomsday.suitX.model.Notification;
 import dev.doomsday.suitX.service.NotificationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -20,6 +25,29 @@ public class NotificationController {
     
     private final NotificationService notificationService;
     
+    /**
+     * Stream new notifications and unread count changes as Server-Sent Events.
+     * Reconnecting clients send Last-Event-ID to receive the events they missed; a client that
+     * opens a new stream with a fresh token passes it as ?lastEventId= instead.
+     * Authenticated with a stream token from POST /auth/stream-token passed as ?token=.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamNotifications(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(value = "lastEventId", required = false) String lastEventIdParam,
+            Authentication authentication) {
+        if (authentication == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        
+        SseEmitter emitter = notificationService.openStream(authentication.getName(),
+                lastEventId != null ? lastEventId : lastEventIdParam);
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no")
+                .header("Cache-Control", "no-cache")
+                .body(emitter);
+    }
+    
     /**
      * Get all notifications for the authenticated user
      */
@@ -30,6 +58,39 @@ public class NotificationController {
         return ResponseEntity.ok(notifications);
     }
     
+    /**
+     * Get a page of the notification feed for the authenticated user, newest first
+     * Pass nextCursor from the response as cursor to get the following page
+     */
+    @GetMapping("/feed")
+    public ResponseEntity<CursorPage<NotificationSummaryDto>> getFeed(
+            @RequestParam(required = false) Boolean read,
+            @RequestParam(required = false) List<String> type,
+            @RequestParam(required = false) String priority,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + NotificationService.DEFAULT_FEED_SIZE) int limit,
+            Authentication authentication) {
+        if (authentication == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        
+        try {
+            List<String> types = type != null
+                ? type.stream().map(String::toUpperCase).toList()
+                : null;
+            CursorPage<NotificationSummaryDto> page = notificationService.getFeed(
+                authentication.getName(),
+                read,
+                types,
+                priority != null ? priority.toUpperCase() : null,
+                cursor,
+                limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     /**
      * Get unread notifications for the authenticated user
      */
@@ -66,10 +127,10 @@ public class NotificationController {
      * Mark all notifications as read
      */
     @PutMapping("/read-all")
-    public ResponseEntity<Void> markAllAsRead(Authentication authentication) {
+    public ResponseEntity<Map<String, Long>> markAllAsRead(Authentication authentication) {
         String username = authentication.getName();
-        notificationService.markAllAsRead(username);
-        return ResponseEntity.ok().build();
+        long updated = notificationService.markAllAsRead(username);
+        return ResponseEntity.ok(Map.of("updated", updated));
     }
     
     /**
@@ -88,9 +149,9 @@ public class NotificationController {
      * Delete all read notifications
      */
     @DeleteMapping("/read")
-    public ResponseEntity<Void> deleteReadNotifications(Authentication authentication) {
+    public ResponseEntity<Map<String, Long>> deleteReadNotifications(Authentication authentication) {
         String username = authentication.getName();
-        notificationService.deleteReadNotifications(username);
-        return ResponseEntity.ok().build();
+        long deleted = notificationService.deleteReadNotifications(username);
+        return ResponseEntity.ok(Map.of("deleted", deleted));
     }
 }
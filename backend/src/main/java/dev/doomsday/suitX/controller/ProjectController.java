@@ -1,5 +1,6 @@
 package dev.doomsday.suitX.controller;
 
+import java.net.URI;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,12 +16,14 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import dev.doomsday.suitX.dto.AIAnalysisJobDto;
+import dev.doomsday.suitX.dto.CostRollupDto;
 import dev.doomsday.suitX.dto.ProjectDto;
-import dev.doomsday.suitX.dto.RiskDto;
 import dev.doomsday.suitX.model.User;
 import dev.doomsday.suitX.repository.UserRepository;
+import dev.doomsday.suitX.service.AIAnalysisJobService;
+import dev.doomsday.suitX.service.CostRollupService;
 import dev.doomsday.suitX.service.ProjectService;
-import dev.doomsday.suitX.service.RiskService;
 import lombok.RequiredArgsConstructor;
 
 @RestController
@@ -29,7 +32,8 @@ import lombok.RequiredArgsConstructor;
 public class ProjectController {
 
     private final ProjectService projectService;
-    private final RiskService riskService;
+    private final AIAnalysisJobService analysisJobService;
+    private final CostRollupService costRollupService;
     private final UserRepository userRepository;
 
     @GetMapping
@@ -137,8 +141,12 @@ public class ProjectController {
         }
     }
 
+    /**
+     * Start an AI risk analysis of the project in the background
+     * Returns 202 with the job; poll GET /api/ai/jobs/{jobId} or stream /api/ai/jobs/{jobId}/events for the risks
+     */
     @PostMapping("/{id}/analyze-risks")
-    public ResponseEntity<List<RiskDto>> analyzeProjectRisks(@PathVariable String id, Authentication authentication) {
+    public ResponseEntity<AIAnalysisJobDto> analyzeProjectRisks(@PathVariable String id, Authentication authentication) {
         try {
             if (authentication == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
@@ -151,9 +159,12 @@ public class ProjectController {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
             
-            // Analyze and generate risks
-            List<RiskDto> risks = riskService.analyzeAndGenerateRisks(id, username);
-            return ResponseEntity.ok(risks);
+            AIAnalysisJobDto job = analysisJobService.submitProjectAnalysis(id, username);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/ai/jobs/" + job.getId()))
+                    .body(job);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "30").build();
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -190,6 +201,21 @@ public class ProjectController {
         }
     }
     
+    @GetMapping("/{id}/costs")
+    public ResponseEntity<CostRollupDto> getProjectCosts(@PathVariable String id, Authentication authentication) {
+        if (authentication == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (!projectService.canUserAccessProject(id, authentication.getName())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            return ResponseEntity.ok(costRollupService.getProjectCosts(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @GetMapping("/{id}/members")
     public ResponseEntity<List<String>> getProjectMembers(@PathVariable String id, Authentication authentication) {
         if (authentication == null) {
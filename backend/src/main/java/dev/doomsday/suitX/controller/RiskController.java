@@ -14,10 +14,13 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import dev.doomsday.suitX.dto.CostRollupDto;
 import dev.doomsday.suitX.dto.RiskDto;
 import dev.doomsday.suitX.dto.RiskSummaryDto;
+import dev.doomsday.suitX.service.CostRollupService;
 import dev.doomsday.suitX.service.RiskService;
 import lombok.RequiredArgsConstructor;
 
@@ -27,6 +30,7 @@ import lombok.RequiredArgsConstructor;
 public class RiskController {
 
     private final RiskService riskService;
+    private final CostRollupService costRollupService;
 
     @GetMapping
     public ResponseEntity<List<RiskDto>> getAllRisks() {
@@ -124,6 +128,24 @@ public class RiskController {
         }
     }
 
+    @GetMapping("/exposure")
+    public ResponseEntity<List<RiskDto>> getRisksByResidualExposure(
+            @RequestParam(required = false) Double minResidual,
+            @RequestParam(defaultValue = "20") int limit,
+            Authentication authentication) {
+        if (authentication == null || authentication.getName() == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        List<RiskDto> risks = riskService.getRisksByResidualExposure(authentication.getName(), minResidual, limit);
+        return ResponseEntity.ok(risks);
+    }
+
+    @GetMapping("/{id}/costs")
+    public ResponseEntity<CostRollupDto> getRiskCosts(@PathVariable String id) {
+        CostRollupDto costs = costRollupService.getRiskCosts(id);
+        return ResponseEntity.ok(costs);
+    }
+
     @GetMapping("/summary")
     public ResponseEntity<RiskSummaryDto> getRiskSummary(Authentication authentication) {
         if (authentication == null) {
@@ -1,12 +1,15 @@
 package dev.doomsday.suitX.controller;
 
 import java.util.List;
+import java.util.Map;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -15,7 +18,11 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import dev.doomsday.suitX.dto.PageResponse;
+import dev.doomsday.suitX.dto.TaskAttachmentDto;
+import dev.doomsday.suitX.dto.TaskCommentDto;
 import dev.doomsday.suitX.dto.TaskDto;
+import dev.doomsday.suitX.service.TaskDiscussionService;
 import dev.doomsday.suitX.service.TaskService;
 import lombok.RequiredArgsConstructor;
 
@@ -25,6 +32,7 @@ import lombok.RequiredArgsConstructor;
 public class TaskController {
 
     private final TaskService taskService;
+    private final TaskDiscussionService taskDiscussionService;
 
     @GetMapping
     public ResponseEntity<List<TaskDto>> getAllTasks() {
@@ -113,6 +121,8 @@ public class TaskController {
             TaskDto updatedTask = taskService.updateTask(id, taskDto);
             System.out.println("Task updated successfully: " + id);
             return ResponseEntity.ok(updatedTask);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             System.err.println("Error updating task: " + e.getMessage());
             e.printStackTrace();
@@ -120,6 +130,32 @@ public class TaskController {
         }
     }
 
+    /**
+     * Update only the fields present in the body. The body must carry the task version
+     * the client last read; a stale version returns 409 Conflict.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<TaskDto> patchTask(
+            @PathVariable String id,
+            @RequestBody TaskDto taskDto,
+            Authentication authentication) {
+        try {
+            if (authentication == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            }
+            if (!taskService.canAccessTask(id, authentication.getName())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            return ResponseEntity.ok(taskService.patchTask(id, taskDto));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTask(@PathVariable String id, Authentication authentication) {
         try {
@@ -136,4 +172,114 @@ public class TaskController {
             return ResponseEntity.notFound().build();
         }
     }
+
+    @GetMapping("/{id}/comments")
+    public ResponseEntity<PageResponse<TaskCommentDto>> getComments(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        if (authentication == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (!taskService.canAccessTask(id, authentication.getName())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(taskDiscussionService.getComments(id, page, size));
+    }
+
+    @PostMapping("/{id}/comments")
+    public ResponseEntity<TaskCommentDto> addComment(
+            @PathVariable String id,
+            @RequestBody Map<String, String> body,
+            Authentication authentication) {
+        try {
+            if (authentication == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            }
+            String username = authentication.getName();
+            if (!taskService.canAccessTask(id, username)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            TaskCommentDto comment = taskDiscussionService.addComment(id, username, body.get("text"));
+            return ResponseEntity.status(HttpStatus.CREATED).body(comment);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @DeleteMapping("/{id}/comments/{commentId}")
+    public ResponseEntity<Void> deleteComment(
+            @PathVariable String id,
+            @PathVariable String commentId,
+            Authentication authentication) {
+        try {
+            if (authentication == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            }
+            taskDiscussionService.deleteComment(id, commentId, authentication.getName());
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @GetMapping("/{id}/attachments")
+    public ResponseEntity<PageResponse<TaskAttachmentDto>> getAttachments(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        if (authentication == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (!taskService.canAccessTask(id, authentication.getName())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(taskDiscussionService.getAttachments(id, page, size));
+    }
+
+    @PostMapping("/{id}/attachments")
+    public ResponseEntity<TaskAttachmentDto> addAttachment(
+            @PathVariable String id,
+            @RequestBody TaskAttachmentDto attachmentDto,
+            Authentication authentication) {
+        try {
+            if (authentication == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            }
+            String username = authentication.getName();
+            if (!taskService.canAccessTask(id, username)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            TaskAttachmentDto attachment = taskDiscussionService.addAttachment(id, username, attachmentDto);
+            return ResponseEntity.status(HttpStatus.CREATED).body(attachment);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @DeleteMapping("/{id}/attachments/{attachmentId}")
+    public ResponseEntity<Void> deleteAttachment(
+            @PathVariable String id,
+            @PathVariable String attachmentId,
+            Authentication authentication) {
+        try {
+            if (authentication == null) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            }
+            taskDiscussionService.deleteAttachment(id, attachmentId, authentication.getName());
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
 }
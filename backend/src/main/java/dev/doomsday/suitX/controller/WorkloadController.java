@@ -0,0 +1,41 @@
+package dev.doomsday.suitX.controller;
+
+import dev.doomsday.suitX.dto.AssigneeWorkloadDto;
+import dev.doomsday.suitX.service.WorkloadService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * REST controller for team workload across the projects a user manages
+ */
+@RestController
+@RequestMapping("/api/workload")
+@RequiredArgsConstructor
+public class WorkloadController {
+
+    private final WorkloadService workloadService;
+
+    /**
+     * Get per-assignee hours and open items, optionally limited to a due date range
+     */
+    @GetMapping
+    public ResponseEntity<List<AssigneeWorkloadDto>> getWorkload(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            Authentication authentication) {
+        if (authentication == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(workloadService.getWorkloadForManager(authentication.getName(), from, to));
+    }
+}
@@ -0,0 +1,24 @@
+package dev.doomsday.suitX.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * Status and, once finished, result of a background risk analysis
+ */
+@Data
+public class AIAnalysisJobDto {
+    private String id;
+    private String type; // PROJECT, REQUEST
+    private String projectId;
+    private String status; // QUEUED, RUNNING, SUCCEEDED, FAILED
+    private String stage;
+    private String error;
+    private List<RiskDto> risks; // PROJECT jobs
+    private AIAnalysisResponse analysis; // REQUEST jobs
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,33 @@
+package dev.doomsday.suitX.dto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * Workload of one assignee across a manager's projects
+ * Hours and counts are totals; weeks breaks them down by the ISO week of the due date
+ */
+@Data
+public class AssigneeWorkloadDto {
+    private String userId;
+    private String username; // For display purposes
+    private double estimatedHours;
+    private double actualHours;
+    private long taskCount;
+    private long openTaskCount;
+    private long openMitigationCount;
+    private List<WeekBucket> weeks = new ArrayList<>();
+
+    @Data
+    public static class WeekBucket {
+        private LocalDate weekStart; // Monday of the ISO week, null for items without a due date
+        private double estimatedHours;
+        private double actualHours;
+        private long taskCount;
+        private long openTaskCount;
+        private long openMitigationCount;
+    }
+}
@@ -0,0 +1,19 @@
+package dev.doomsday.suitX.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.Data;
+
+@Data
+public class CostRollupDto {
+    private String scopeType; // PROJECT, RISK
+    private String scopeId;
+    private Double estimatedCost;
+    private Double actualCost;
+    private Double committedCost;
+    private Double budget; // Project budget, null for risks
+    private Double remainingBudget; // budget - actual - committed, null when no budget is set
+    private Long mitigationCount;
+    private LocalDateTime updatedAt;
+    private LocalDateTime reconciledAt;
+}
@@ -0,0 +1,15 @@
+package dev.doomsday.suitX.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.Data;
+
+@Data
+public class MitigationActionDto {
+    private String actionId;
+    private String description;
+    private String assignedTo; // User ID
+    private String status; // PENDING, IN_PROGRESS, COMPLETED
+    private LocalDateTime dueDate;
+    private LocalDateTime completedAt;
+}
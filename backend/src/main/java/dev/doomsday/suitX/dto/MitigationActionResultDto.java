@@ -0,0 +1,16 @@
+package dev.doomsday.suitX.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.Data;
+
+/**
+ * Result of a single action update: the changed action and the recomputed mitigation progress
+ */
+@Data
+public class MitigationActionResultDto {
+    private String mitigationId;
+    private Double progressPercentage;
+    private LocalDateTime updatedAt;
+    private MitigationActionDto action;
+}
@@ -1,6 +1,7 @@
 package dev.doomsday.suitX.dto;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import lombok.Data;
 
@@ -29,4 +30,5 @@ public class MitigationDto {
     private Double actualCost;
     private Boolean aiGenerated;
     private String effectiveness;
+    private List<MitigationActionDto> actions;
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package dev.doomsday.suitX.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.Data;
+
+/**
+ * Compact notification for list rendering (no metadata or expiry)
+ */
+@Data
+public class NotificationSummaryDto {
+    private String id;
+    private String type;
+    private String title;
+    private String message;
+    private String relatedEntityType;
+    private String relatedEntityId;
+    private String actionUrl;
+    private Boolean isRead;
+    private String priority;
+    private LocalDateTime createdAt;
+}
@@ -13,6 +13,7 @@ public class RiskDto {
     private String severity;
     private String likelihood;
     private Double riskScore;
+    private Double residualScore; // riskScore reduced by mitigation progress
     private String status;
     private String projectId;
     private String projectName; // Added for display in dashboard
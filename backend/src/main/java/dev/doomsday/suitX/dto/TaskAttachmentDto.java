@@ -0,0 +1,19 @@
+package dev.doomsday.suitX.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import lombok.Data;
+
+@Data
+public class TaskAttachmentDto {
+    private String id;
+    private String taskId;
+    private String fileName;
+    private String fileUrl;
+    private String uploadedBy;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", timezone = "UTC")
+    private LocalDateTime createdAt;
+}
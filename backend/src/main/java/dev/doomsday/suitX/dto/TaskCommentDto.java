@@ -0,0 +1,18 @@
+package dev.doomsday.suitX.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import lombok.Data;
+
+@Data
+public class TaskCommentDto {
+    private String id;
+    private String taskId;
+    private String userId;
+    private String text;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", timezone = "UTC")
+    private LocalDateTime createdAt;
+}
@@ -32,6 +32,9 @@ public class TaskDto {
     private Double actualHours;
     private List<String> dependencies;
     private List<String> tags;
+    private Integer commentCount;
+    private Integer attachmentCount;
+    private Long version; // Must be sent back on PATCH
     
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'", timezone = "UTC")
     private LocalDateTime createdAt;
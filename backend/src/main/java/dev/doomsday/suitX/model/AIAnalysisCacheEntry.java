@@ -0,0 +1,31 @@
+package dev.doomsday.suitX.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * A parsed Gemini risk analysis, stored under a hash of the prompt, model and generation config
+ * Lets a repeat analysis of unchanged input skip the API call, across restarts and instances.
+ */
+@Data
+@Document(collection = "ai_analysis_cache")
+public class AIAnalysisCacheEntry {
+
+    @Id
+    private String id; // SHA-256 of the normalized prompt, model and generation config
+
+    private String model;
+
+    private String response; // AIAnalysisResponse as JSON
+
+    private LocalDateTime createdAt;
+
+    // TTL index - MongoDB deletes the entry once expiresAt has passed
+    // Ensured at startup by MongoIndexInitializer
+    @Indexed(name = "expires_at_ttl", expireAfterSeconds = 0)
+    private LocalDateTime expiresAt;
+}
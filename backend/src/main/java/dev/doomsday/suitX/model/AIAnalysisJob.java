@@ -0,0 +1,75 @@
+package dev.doomsday.suitX.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import dev.doomsday.suitX.dto.AIAnalysisRequest;
+import dev.doomsday.suitX.dto.AIAnalysisResponse;
+import dev.doomsday.suitX.dto.RiskDto;
+import lombok.Data;
+
+/**
+ * A risk analysis run in the background
+ * The POST that starts it returns the job id; the result is read back by polling or over SSE.
+ */
+@Data
+@Document(collection = "ai_analysis_jobs")
+@CompoundIndexes({
+    // Restart recovery: QUEUED jobs, and RUNNING jobs whose worker has gone
+    @CompoundIndex(name = "status_started_idx", def = "{'status': 1, 'startedAt': 1}"),
+    @CompoundIndex(name = "username_created_idx", def = "{'username': 1, 'createdAt': -1}")
+})
+public class AIAnalysisJob {
+    // Finished jobs are kept this long before the TTL index removes them
+    public static final int RETENTION_DAYS = 7;
+
+    public static final String TYPE_PROJECT = "PROJECT"; // analyse a saved project and store its risks
+    public static final String TYPE_REQUEST = "REQUEST"; // analyse a form request, nothing stored
+
+    public static final String QUEUED = "QUEUED";
+    public static final String RUNNING = "RUNNING";
+    public static final String SUCCEEDED = "SUCCEEDED";
+    public static final String FAILED = "FAILED";
+
+    @Id
+    private String id;
+
+    private String type; // PROJECT, REQUEST
+
+    private String username; // who started the job; only they can read it
+
+    private String projectId; // PROJECT jobs
+
+    private AIAnalysisRequest request; // REQUEST jobs
+
+    private String status = QUEUED; // QUEUED, RUNNING, SUCCEEDED, FAILED
+
+    private String stage; // human-readable progress, e.g. "Analyzing project with AI"
+
+    private String error;
+
+    // Results
+    private List<RiskDto> risks; // PROJECT jobs
+    private AIAnalysisResponse analysis; // REQUEST jobs
+
+    private int attempts;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    // TTL index - MongoDB deletes the job once expiresAt has passed
+    // Ensured at startup by MongoIndexInitializer
+    @Indexed(name = "expires_at_ttl", expireAfterSeconds = 0)
+    private LocalDateTime expiresAt;
+
+    public boolean isFinished() {
+        return SUCCEEDED.equals(status) || FAILED.equals(status);
+    }
+}
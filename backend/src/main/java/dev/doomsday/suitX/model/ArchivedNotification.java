@@ -0,0 +1,61 @@
+package dev.doomsday.suitX.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Compact copy of a read notification moved out of the hot notifications collection
+ * Keeps what is needed to list a user's history; message and metadata are dropped.
+ */
+@Data
+@Document(collection = "notifications_archive")
+@CompoundIndex(name = "user_created_idx", def = "{'userId': 1, 'createdAt': -1}")
+public class ArchivedNotification {
+    // How long archived notifications are kept before the TTL index removes them
+    public static final int RETENTION_DAYS = 365;
+    
+    @Id
+    private String id; // Same id as the original notification
+    
+    private String userId;
+    
+    private String type;
+    
+    private String title;
+    
+    private String relatedEntityType;
+    
+    private String relatedEntityId;
+    
+    private String priority;
+    
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime readAt;
+    
+    private LocalDateTime archivedAt;
+    
+    @Indexed(name = "expires_at_ttl", expireAfterSeconds = 0)
+    private LocalDateTime expiresAt;
+    
+    public static ArchivedNotification from(Notification notification, LocalDateTime archivedAt) {
+        ArchivedNotification archived = new ArchivedNotification();
+        archived.setId(notification.getId());
+        archived.setUserId(notification.getUserId());
+        archived.setType(notification.getType());
+        archived.setTitle(notification.getTitle());
+        archived.setRelatedEntityType(notification.getRelatedEntityType());
+        archived.setRelatedEntityId(notification.getRelatedEntityId());
+        archived.setPriority(notification.getPriority());
+        archived.setCreatedAt(notification.getCreatedAt());
+        archived.setReadAt(notification.getReadAt());
+        archived.setArchivedAt(archivedAt);
+        archived.setExpiresAt(archivedAt.plusDays(RETENTION_DAYS));
+        return archived;
+    }
+}
@@ -0,0 +1,45 @@
+package dev.doomsday.suitX.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Materialized mitigation cost totals for one project or one risk
+ * The id is "PROJECT:<projectId>" or "RISK:<riskId>", so a rollup is read with a single _id lookup.
+ * Kept current with $inc deltas on mitigation writes and corrected by a nightly reconciliation.
+ */
+@Data
+@Document(collection = "cost_rollups")
+public class CostRollup {
+    public static final String PROJECT = "PROJECT";
+    public static final String RISK = "RISK";
+
+    @Id
+    private String id;
+    
+    private String scopeType; // PROJECT, RISK
+    
+    private String scopeId; // Project or risk ID
+    
+    // Sum of estimatedCost of mitigations that are not cancelled
+    private Double estimatedCost = 0.0;
+    
+    // Sum of actualCost of all mitigations
+    private Double actualCost = 0.0;
+    
+    // Sum of estimatedCost of mitigations still open (not completed or cancelled)
+    private Double committedCost = 0.0;
+    
+    private Long mitigationCount = 0L;
+    
+    private LocalDateTime updatedAt;
+    
+    private LocalDateTime reconciledAt;
+    
+    public static String idFor(String scopeType, String scopeId) {
+        return scopeType + ":" + scopeId;
+    }
+}
@@ -0,0 +1,67 @@
+package dev.doomsday.suitX.model;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import lombok.Data;
+
+/**
+ * An email waiting to be sent, or a record of one that was.
+ * Written before delivery so a restart does not lose it; the unique idempotencyKey
+ * stops the same email being queued twice.
+ */
+@Data
+@Document(collection = "email_outbox")
+@CompoundIndexes({
+    // Claim of PENDING messages that are due, oldest first
+    @CompoundIndex(name = "status_next_attempt_idx", def = "{'status': 1, 'nextAttemptAt': 1}"),
+    // Reclaim of SENDING messages whose lease expired
+    @CompoundIndex(name = "status_lease_idx", def = "{'status': 1, 'leaseUntil': 1}")
+})
+public class EmailOutboxMessage {
+    // Delivered and dead messages are kept this long, which is also how long their key deduplicates
+    public static final int RETENTION_DAYS = 30;
+
+    public static final String PENDING = "PENDING";
+    public static final String SENDING = "SENDING";
+    public static final String SENT = "SENT";
+    public static final String DEAD = "DEAD";
+
+    @Id
+    private String id;
+
+    // template:entityId[:event]:recipient, or random for emails that need no deduplication
+    @Indexed(name = "idempotency_key_idx", unique = true)
+    private String idempotencyKey;
+
+    private String toEmail;
+    private String subject;
+    private String html;
+    private String text;
+    private String category;
+
+    private String status = PENDING; // PENDING, SENDING, SENT, DEAD
+
+    // Number of times a worker has claimed the message
+    private int claims;
+    private LocalDateTime nextAttemptAt;
+
+    // Set while a worker holds the message
+    private String leaseOwner;
+    private LocalDateTime leaseUntil;
+
+    private String lastError;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime sentAt;
+
+    // TTL index, set once the message is SENT or DEAD
+    // Ensured at startup by MongoIndexInitializer
+    @Indexed(name = "expires_at_ttl", expireAfterSeconds = 0)
+    private LocalDateTime expiresAt;
+}
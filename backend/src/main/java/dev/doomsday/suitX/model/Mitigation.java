@@ -21,7 +21,8 @@ import lombok.Data;
 @Data
 @Document(collection = "mitigations")
 @CompoundIndexes({
-    @CompoundIndex(name = "project_status_idx", def = "{'projectId': 1, 'status': 1}")
+    @CompoundIndex(name = "project_status_idx", def = "{'projectId': 1, 'status': 1}"),
+    @CompoundIndex(name = "project_id_idx", def = "{'projectId': 1, '_id': -1}")
 })
 public class Mitigation {
     @Id
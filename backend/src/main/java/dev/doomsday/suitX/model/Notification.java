@@ -21,9 +21,15 @@ import lombok.Data;
 @Data
 @Document(collection = "notifications")
 @CompoundIndexes({
-    @CompoundIndex(name = "user_read_created_idx", def = "{'userId': 1, 'isRead': 1, 'createdAt': -1}")
+    // Feed paging on (createdAt, _id) under a userId + isRead prefix; also serves queries on any prefix of it
+    @CompoundIndex(name = "user_read_created_id_idx", def = "{'userId': 1, 'isRead': 1, 'createdAt': -1, '_id': -1}"),
+    // Nightly archive of old read notifications, oldest first
+    @CompoundIndex(name = "read_created_idx", def = "{'isRead': 1, 'createdAt': 1}")
 })
 public class Notification {
+    // How long a notification stays in the hot collection before the TTL index removes it
+    public static final int RETENTION_DAYS = 90;
+    
     @Id
     private String id;
     
@@ -48,8 +54,7 @@ public class Notification {
     // Frontend navigation
     private String actionUrl; // Route to navigate to when notification is clicked
     
-    // Status
-    @Indexed
+    // Status - indexed as the prefix of read_created_idx
     private Boolean isRead = false;
     
     private String priority = "MEDIUM"; // LOW, MEDIUM, HIGH
@@ -64,13 +69,16 @@ public class Notification {
     
     private LocalDateTime readAt;
     
-    // TTL index - notifications expire after 90 days (auto-deleted by MongoDB)
-    // Note: TTL indexes should be created manually or via configuration
-    // db.notifications.createIndex({ "expiresAt": 1 }, { expireAfterSeconds: 0 })
-    @Indexed
+    // TTL index - MongoDB deletes the notification once expiresAt has passed
+    // Ensured at startup by MongoIndexInitializer
+    @Indexed(name = "expires_at_ttl", expireAfterSeconds = 0)
     private LocalDateTime expiresAt;
     
     // Helper methods
+    public static LocalDateTime defaultExpiry() {
+        return LocalDateTime.now().plusDays(RETENTION_DAYS);
+    }
+    
     public void markAsRead() {
         this.isRead = true;
         this.readAt = LocalDateTime.now();
@@ -106,7 +114,7 @@ public class Notification {
         notification.addMetadata("projectName", projectName);
         notification.addMetadata("taskTitle", taskTitle);
         notification.addMetadata("assignedBy", assignedBy);
-        notification.setExpiresAt(LocalDateTime.now().plusDays(90));
+        notification.setExpiresAt(defaultExpiry());
         return notification;
     }
     
@@ -124,7 +132,7 @@ public class Notification {
         notification.addMetadata("projectName", projectName);
         notification.addMetadata("riskTitle", riskTitle);
         notification.addMetadata("severity", severity);
-        notification.setExpiresAt(LocalDateTime.now().plusDays(90));
+        notification.setExpiresAt(defaultExpiry());
         return notification;
     }
     
@@ -141,7 +149,7 @@ public class Notification {
         notification.setPriority("MEDIUM");
         notification.addMetadata("projectName", projectName);
         notification.addMetadata("invitedBy", invitedBy);
-        notification.setExpiresAt(LocalDateTime.now().plusDays(90));
+        notification.setExpiresAt(defaultExpiry());
         return notification;
     }
     
@@ -159,7 +167,7 @@ public class Notification {
         notification.addMetadata("projectName", projectName);
         notification.addMetadata("mitigationTitle", mitigationTitle);
         notification.addMetadata("assignedBy", assignedBy);
-        notification.setExpiresAt(LocalDateTime.now().plusDays(90));
+        notification.setExpiresAt(defaultExpiry());
         return notification;
     }
     
@@ -178,7 +186,7 @@ public class Notification {
         notification.addMetadata("projectName", projectName);
         notification.addMetadata("entityTitle", entityTitle);
         notification.addMetadata("deadline", deadline.toString());
-        notification.setExpiresAt(LocalDateTime.now().plusDays(90));
+        notification.setExpiresAt(defaultExpiry());
         return notification;
     }
 }
@@ -0,0 +1,25 @@
+package dev.doomsday.suitX.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Materialized unread notification count for one user
+ * The id is the user's ID. Kept current with $inc on notification writes
+ * and corrected by a periodic recount.
+ */
+@Data
+@Document(collection = "notification_counters")
+public class NotificationCounter {
+    @Id
+    private String id; // User ID
+    
+    private Long unread = 0L;
+    
+    private LocalDateTime updatedAt;
+    
+    private LocalDateTime reconciledAt;
+}
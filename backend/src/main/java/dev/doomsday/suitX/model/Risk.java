@@ -22,7 +22,8 @@ import lombok.Data;
 @Document(collection = "risks")
 @CompoundIndexes({
     @CompoundIndex(name = "project_status_idx", def = "{'projectId': 1, 'status': 1}"),
-    @CompoundIndex(name = "project_severity_idx", def = "{'projectId': 1, 'severity': 1}")
+    @CompoundIndex(name = "project_severity_idx", def = "{'projectId': 1, 'severity': 1}"),
+    @CompoundIndex(name = "project_residual_idx", def = "{'projectId': 1, 'residualScore': -1}")
 })
 public class Risk {
     @Id
@@ -49,6 +50,12 @@ public class Risk {
     // Calculated risk score (severity × likelihood numeric values)
     private Double riskScore;
     
+    // Risk left after mitigation progress, maintained by ResidualRiskService
+    // Indexed together with projectId (project_residual_idx)
+    private Double residualScore;
+    
+    private LocalDateTime residualUpdatedAt;
+    
     // Risk status
     @Indexed
     private String status = "IDENTIFIED"; // IDENTIFIED, MONITORING, MITIGATED, RESOLVED, ACCEPTED
@@ -65,6 +72,8 @@ public class Risk {
     
     private Double aiConfidence; // AI confidence score (0-100)
     
+    private String analysisJobId; // Analysis job that saved this risk, so a rerun of the job does not save it again
+    
     // Embedded change history for audit trail
     private List<HistoryEntry> history = new ArrayList<>();
     
@@ -4,6 +4,7 @@ import lombok.Data;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.CompoundIndexes;
@@ -64,11 +65,14 @@ public class Task {
     // Additional metadata
     private List<String> tags = new ArrayList<>();
     
-    // Embedded attachments (one-to-few relationship)
-    private List<Attachment> attachments = new ArrayList<>();
+    // Discussion counters - comments and attachments live in the
+    // task_comments and task_attachments collections
+    private Integer commentCount = 0;
+    private Integer attachmentCount = 0;
     
-    // Embedded comments (one-to-few relationship)
-    private List<Comment> comments = new ArrayList<>();
+    // Optimistic locking - incremented on every write
+    @Version
+    private Long version;
     
     // Audit fields
     @CreatedDate
@@ -77,23 +81,6 @@ public class Task {
     @LastModifiedDate
     private LocalDateTime updatedAt;
     
-    // Nested class for attachments
-    @Data
-    public static class Attachment {
-        private String fileName;
-        private String fileUrl;
-        private LocalDateTime uploadedAt;
-        private String uploadedBy; // User ID
-    }
-    
-    // Nested class for comments
-    @Data
-    public static class Comment {
-        private String userId;
-        private String text;
-        private LocalDateTime createdAt;
-    }
-    
     // Helper methods
     public boolean isAssignedTo(String userId) {
         return assignedTo != null && assignedTo.equals(userId);
@@ -106,27 +93,4 @@ public class Task {
     public boolean isOverdue() {
         return dueDate != null && LocalDateTime.now().isAfter(dueDate) && !isCompleted();
     }
-    
-    public void addComment(String userId, String text) {
-        if (comments == null) {
-            comments = new ArrayList<>();
-        }
-        Comment comment = new Comment();
-        comment.setUserId(userId);
-        comment.setText(text);
-        comment.setCreatedAt(LocalDateTime.now());
-        comments.add(comment);
-    }
-    
-    public void addAttachment(String fileName, String fileUrl, String uploadedBy) {
-        if (attachments == null) {
-            attachments = new ArrayList<>();
-        }
-        Attachment attachment = new Attachment();
-        attachment.setFileName(fileName);
-        attachment.setFileUrl(fileUrl);
-        attachment.setUploadedAt(LocalDateTime.now());
-        attachment.setUploadedBy(uploadedBy);
-        attachments.add(attachment);
-    }
 }
@@ -0,0 +1,32 @@
+package dev.doomsday.suitX.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * File attached to a task
+ * Stored in its own collection so the task document does not grow with uploads
+ */
+@Data
+@Document(collection = "task_attachments")
+@CompoundIndexes({
+    @CompoundIndex(name = "task_created_idx", def = "{'taskId': 1, 'createdAt': -1}")
+})
+public class TaskAttachment {
+    @Id
+    private String id;
+    
+    private String taskId; // Reference to parent task
+    
+    private String fileName;
+    private String fileUrl;
+    
+    private String uploadedBy; // User ID
+    
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,31 @@
+package dev.doomsday.suitX.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Comment left on a task
+ * Stored in its own collection so the task document does not grow with the discussion
+ */
+@Data
+@Document(collection = "task_comments")
+@CompoundIndexes({
+    @CompoundIndex(name = "task_created_idx", def = "{'taskId': 1, 'createdAt': -1}")
+})
+public class TaskComment {
+    @Id
+    private String id;
+    
+    private String taskId; // Reference to parent task
+    
+    private String userId; // Author of the comment
+    
+    private String text;
+    
+    private LocalDateTime createdAt;
+}
@@ -61,6 +61,15 @@ public class User {
     
     private LocalDateTime lastLogin;
     
+    // When the last weekly digest email was sent
+    private LocalDateTime lastWeeklyDigestAt;
+    
+    // Users on the weekly digest get assignment emails batched instead of one per event
+    public boolean usesWeeklyDigest() {
+        return settings != null && settings.getNotifications() != null
+            && settings.getNotifications().isWeeklyDigest();
+    }
+    
     // Helper method to get full name
     public String getFullName() {
         if (firstName != null && lastName != null) {
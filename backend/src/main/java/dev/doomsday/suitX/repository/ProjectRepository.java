@@ -36,10 +36,19 @@ public interface ProjectRepository extends MongoRepository<Project, String> {
     @Query("{ $or: [ { 'createdBy': ?0 }, { 'memberIds': ?1 } ] }")
     List<Project> findAllAccessibleProjects(String username, String userId);
     
+    // Find only the ids of projects accessible to a user, for scoping other queries
+    @Query(value = "{ $or: [ { 'createdBy': ?0 }, { 'memberIds': ?1 } ] }", fields = "{ '_id': 1 }")
+    List<Project> findAccessibleProjectIds(String username, String userId);
+    
     // Find active projects accessible to a user
     @Query("{ $or: [ { 'createdBy': ?0 }, { 'memberIds': ?1 } ], 'status': 'ACTIVE' }")
     List<Project> findActiveProjectsForUser(String username, String userId);
     
+    // Find the teams of projects a user manages (as owner, creator or project manager)
+    @Query(value = "{ $or: [ { 'ownerId': ?1 }, { 'createdBy': ?0 }, { 'projectManager': ?1 } ] }",
+           fields = "{ 'ownerId': 1, 'memberIds': 1 }")
+    List<Project> findManagedProjectTeams(String username, String userId);
+    
     // Find projects by creator (legacy support)
     List<Project> findByCreatedBy(String createdBy);
     
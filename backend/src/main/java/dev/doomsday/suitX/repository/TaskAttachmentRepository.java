@@ -0,0 +1,21 @@
+package dev.doomsday.suitX.repository;
+
+import dev.doomsday.suitX.model.TaskAttachment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for TaskAttachment entity
+ * Queries are served by the (taskId, createdAt) compound index
+ */
+@Repository
+public interface TaskAttachmentRepository extends MongoRepository<TaskAttachment, String> {
+    
+    // Find a page of attachments for a task, newest first
+    Slice<TaskAttachment> findByTaskIdOrderByCreatedAtDesc(String taskId, Pageable pageable);
+    
+    // Delete all attachments for a task (for cascade delete)
+    long deleteByTaskId(String taskId);
+}
@@ -0,0 +1,21 @@
+package dev.doomsday.suitX.repository;
+
+import dev.doomsday.suitX.model.TaskComment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for TaskComment entity
+ * Queries are served by the (taskId, createdAt) compound index
+ */
+@Repository
+public interface TaskCommentRepository extends MongoRepository<TaskComment, String> {
+    
+    // Find a page of comments for a task, newest first
+    Slice<TaskComment> findByTaskIdOrderByCreatedAtDesc(String taskId, Pageable pageable);
+    
+    // Delete all comments for a task (for cascade delete)
+    long deleteByTaskId(String taskId);
+}
@@ -0,0 +1,163 @@
+package dev.doomsday.suitX.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import dev.doomsday.suitX.dto.AIAnalysisResponse;
+import dev.doomsday.suitX.model.AIAnalysisCacheEntry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Two-tier cache of successful Gemini risk analyses: Caffeine in memory, then ai_analysis_cache in Mongo.
+ *
+ * Entries are keyed by a SHA-256 of the whitespace-normalized prompt, the model and the generation
+ * config, so any change to the analysed input, model or config is a miss. Responses are stored as
+ * JSON and deserialized per hit, so callers never share a mutable response object.
+ * Hits and misses are counted as ai.cache.requests{result=memory|mongo|miss}.
+ */
+@Service
+public class AIAnalysisCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(AIAnalysisCache.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Cache<String, String> memory;
+
+    private final Counter memoryHits;
+    private final Counter mongoHits;
+    private final Counter misses;
+
+    public AIAnalysisCache(MongoTemplate mongoTemplate,
+                           ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.ai.cache.ttl-hours:168}") long ttlHours,
+                           @Value("${app.ai.cache.memory-size:500}") long memorySize) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.memory = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(memorySize)
+                .build();
+
+        this.memoryHits = Counter.builder("ai.cache.requests").tag("result", "memory").register(meterRegistry);
+        this.mongoHits = Counter.builder("ai.cache.requests").tag("result", "mongo").register(meterRegistry);
+        this.misses = Counter.builder("ai.cache.requests").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("ai.cache.hit.ratio", this, AIAnalysisCache::hitRatio)
+                .description("Share of analyses served from either cache tier")
+                .register(meterRegistry);
+        Gauge.builder("ai.cache.memory.size", memory, Cache::estimatedSize)
+                .description("Analyses currently held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Cache key for a prompt sent to a model with the given generation config
+     */
+    public static String key(String prompt, String model, Map<String, ?> generationConfig) {
+        String normalizedPrompt = prompt.strip().replaceAll("\\s+", " ");
+        // TreeMap so the key does not depend on the config map's iteration order
+        String config = new TreeMap<>(generationConfig).toString();
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(model.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(config.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(normalizedPrompt.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Look up a cached analysis, promoting Mongo hits into memory
+     */
+    public Optional<AIAnalysisResponse> get(String key) {
+        String json = memory.getIfPresent(key);
+        if (json != null) {
+            memoryHits.increment();
+            return read(json);
+        }
+
+        try {
+            AIAnalysisCacheEntry entry = mongoTemplate.findById(key, AIAnalysisCacheEntry.class);
+            // The TTL monitor only runs once a minute, so check expiry here too
+            if (entry != null && entry.getExpiresAt().isAfter(LocalDateTime.now())) {
+                mongoHits.increment();
+                memory.put(key, entry.getResponse());
+                return read(entry.getResponse());
+            }
+        } catch (DataAccessException e) {
+            logger.warn("AI analysis cache lookup failed: {}", e.getMessage());
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Store a successful analysis in both tiers
+     */
+    public void put(String key, String model, AIAnalysisResponse response) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            logger.warn("Could not serialize AI analysis for caching: {}", e.getMessage());
+            return;
+        }
+        memory.put(key, json);
+
+        LocalDateTime now = LocalDateTime.now();
+        AIAnalysisCacheEntry entry = new AIAnalysisCacheEntry();
+        entry.setId(key);
+        entry.setModel(model);
+        entry.setResponse(json);
+        entry.setCreatedAt(now);
+        entry.setExpiresAt(now.plus(ttl));
+        try {
+            mongoTemplate.save(entry);
+        } catch (DataAccessException e) {
+            logger.warn("Could not persist AI analysis cache entry: {}", e.getMessage());
+        }
+    }
+
+    private Optional<AIAnalysisResponse> read(String json) {
+        try {
+            return Optional.of(objectMapper.readValue(json, AIAnalysisResponse.class));
+        } catch (JsonProcessingException e) {
+            logger.warn("Discarding unreadable AI analysis cache entry: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private double hitRatio() {
+        double hits = memoryHits.count() + mongoHits.count();
+        double total = hits + misses.count();
+        return total == 0 ? 0 : hits / total;
+    }
+}
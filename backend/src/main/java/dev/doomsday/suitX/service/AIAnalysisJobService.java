@@ -0,0 +1,400 @@
+package dev.doomsday.suitX.service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import dev.doomsday.suitX.dto.AIAnalysisJobDto;
+import dev.doomsday.suitX.dto.AIAnalysisRequest;
+import dev.doomsday.suitX.dto.AIAnalysisResponse;
+import dev.doomsday.suitX.dto.AIMitigationStrategy;
+import dev.doomsday.suitX.dto.AIProjectInsights;
+import dev.doomsday.suitX.dto.AIRiskAssessment;
+import dev.doomsday.suitX.dto.RiskDto;
+import dev.doomsday.suitX.model.AIAnalysisJob;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs risk analyses in the background so the requests that start them return at once.
+ *
+ * Jobs are stored in ai_analysis_jobs and run on a small bounded executor; when its queue is
+ * full new jobs are refused instead of tying up more threads. A worker claims a job by switching
+ * it from QUEUED to RUNNING, so a job submitted twice (e.g. by recovery) still runs once.
+ * Jobs left QUEUED, or RUNNING for longer than stale-after-ms because their instance stopped,
+ * are picked up again at startup and by a periodic sweep, which skips jobs already waiting in this
+ * instance's executor. Only the worker holding the current claim (status RUNNING with its attempt
+ * number) can record the outcome, so a worker that was presumed lost cannot overwrite a rerun.
+ * While a form request is analysed, each risk and mitigation is streamed to subscribers as a
+ * "risk" or "mitigation" event as soon as the model has written it; they are not stored until the
+ * job finishes, so late subscribers get them with the finished job.
+ */
+@Service
+public class AIAnalysisJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AIAnalysisJobService.class);
+
+    private static final long EMITTER_TIMEOUT_MS = 10 * 60 * 1000L;
+
+    private final MongoTemplate mongoTemplate;
+    private final RiskService riskService;
+    private final GeminiAIService geminiAIService;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, List<SseEmitter>> listeners = new ConcurrentHashMap<>();
+    // Jobs handed to the executor that no worker has started yet
+    private final Set<String> enqueued = ConcurrentHashMap.newKeySet();
+    private final Counter succeededCounter;
+    private final Counter failedCounter;
+
+    // A RUNNING job not finished after this long is assumed lost and run again
+    @Value("${app.ai.jobs.stale-after-ms:900000}")
+    private long staleAfterMs;
+
+    @Value("${app.ai.jobs.max-attempts:3}")
+    private int maxAttempts;
+
+    public AIAnalysisJobService(MongoTemplate mongoTemplate,
+                                RiskService riskService,
+                                GeminiAIService geminiAIService,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.ai.jobs.workers:2}") int workers,
+                                @Value("${app.ai.jobs.queue-capacity:20}") int queueCapacity) {
+        this.mongoTemplate = mongoTemplate;
+        this.riskService = riskService;
+        this.geminiAIService = geminiAIService;
+
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "ai-job-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        Gauge.builder("ai.jobs.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Analyses waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("ai.jobs.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+        this.succeededCounter = Counter.builder("ai.jobs.finished").tag("status", AIAnalysisJob.SUCCEEDED).register(meterRegistry);
+        this.failedCounter = Counter.builder("ai.jobs.finished").tag("status", AIAnalysisJob.FAILED).register(meterRegistry);
+    }
+
+    /**
+     * Start analysing a saved project; its risks are stored when the job finishes
+     * @throws IllegalStateException if too many analyses are already queued
+     */
+    public AIAnalysisJobDto submitProjectAnalysis(String projectId, String username) {
+        AIAnalysisJob job = newJob(AIAnalysisJob.TYPE_PROJECT, username);
+        job.setProjectId(projectId);
+        return submit(job);
+    }
+
+    /**
+     * Start analysing a form request; the analysis is returned with the job and not stored elsewhere
+     * @throws IllegalStateException if too many analyses are already queued
+     */
+    public AIAnalysisJobDto submitRequestAnalysis(AIAnalysisRequest request, String username) {
+        AIAnalysisJob job = newJob(AIAnalysisJob.TYPE_REQUEST, username);
+        job.setRequest(request);
+        return submit(job);
+    }
+
+    /**
+     * Get a job started by this user
+     */
+    public Optional<AIAnalysisJobDto> getJob(String jobId, String username) {
+        return findJob(jobId, username).map(this::toDto);
+    }
+
+    /**
+     * Stream a job's progress: the current state at once, then an event per change until it finishes
+     */
+    public SseEmitter subscribe(String jobId, String username) {
+        AIAnalysisJob job = findJob(jobId, username)
+                .orElseThrow(() -> new RuntimeException("Analysis job not found with id: " + jobId));
+
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        if (job.isFinished()) {
+            send(emitter, toDto(job));
+            emitter.complete();
+            return emitter;
+        }
+        List<SseEmitter> jobListeners = listeners.computeIfAbsent(jobId, id -> new CopyOnWriteArrayList<>());
+        jobListeners.add(emitter);
+        emitter.onCompletion(() -> removeListener(jobId, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> removeListener(jobId, emitter));
+
+        send(emitter, toDto(job));
+        // Re-read in case the job finished between the first read and registering the listener
+        findJob(jobId, username).filter(AIAnalysisJob::isFinished).ifPresent(finished -> {
+            send(emitter, toDto(finished));
+            emitter.complete();
+        });
+        return emitter;
+    }
+
+    private AIAnalysisJob newJob(String type, String username) {
+        LocalDateTime now = LocalDateTime.now();
+        AIAnalysisJob job = new AIAnalysisJob();
+        job.setType(type);
+        job.setUsername(username);
+        job.setStage("Queued");
+        job.setCreatedAt(now);
+        job.setExpiresAt(now.plusDays(AIAnalysisJob.RETENTION_DAYS));
+        return job;
+    }
+
+    private AIAnalysisJobDto submit(AIAnalysisJob job) {
+        AIAnalysisJob saved = mongoTemplate.insert(job);
+        if (!enqueue(saved.getId())) {
+            finish(new Query(Criteria.where("_id").is(saved.getId()).and("status").is(AIAnalysisJob.QUEUED)),
+                    AIAnalysisJob.FAILED, new Update().set("error", "Too many analyses in progress"));
+            throw new IllegalStateException("Too many analyses in progress, please try again shortly");
+        }
+        return toDto(saved);
+    }
+
+    private boolean enqueue(String jobId) {
+        if (!enqueued.add(jobId)) {
+            // Already waiting for a worker here
+            return true;
+        }
+        try {
+            executor.execute(() -> run(jobId));
+            return true;
+        } catch (RejectedExecutionException e) {
+            enqueued.remove(jobId);
+            return false;
+        }
+    }
+
+    private void run(String jobId) {
+        enqueued.remove(jobId);
+        AIAnalysisJob job = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(jobId).and("status").is(AIAnalysisJob.QUEUED)),
+                new Update()
+                        .set("status", AIAnalysisJob.RUNNING)
+                        .set("stage", "Starting")
+                        .set("startedAt", LocalDateTime.now())
+                        .inc("attempts", 1),
+                FindAndModifyOptions.options().returnNew(true),
+                AIAnalysisJob.class);
+        if (job == null) {
+            // Already claimed by another worker or instance
+            return;
+        }
+        publish(job);
+        Query claim = new Query(Criteria.where("_id").is(jobId)
+                .and("status").is(AIAnalysisJob.RUNNING)
+                .and("attempts").is(job.getAttempts()));
+
+        try {
+            if (AIAnalysisJob.TYPE_PROJECT.equals(job.getType())) {
+                List<RiskDto> risks = riskService.analyzeAndGenerateRisks(job.getProjectId(), job.getUsername(), jobId,
+                        stage -> updateStage(claim, stage));
+                finish(claim, AIAnalysisJob.SUCCEEDED, new Update().set("risks", risks));
+            } else {
+                updateStage(claim, "Analyzing with AI");
+                AIAnalysisResponse analysis = geminiAIService.analyzeProjectRisks(job.getRequest(), streamTo(jobId));
+                if ("ERROR".equals(analysis.getStatus())) {
+                    finish(claim, AIAnalysisJob.FAILED, new Update().set("analysis", analysis).set("error", "AI analysis failed"));
+                } else {
+                    finish(claim, AIAnalysisJob.SUCCEEDED, new Update().set("analysis", analysis));
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Analysis job {} failed: {}", jobId, e.getMessage());
+            finish(claim, AIAnalysisJob.FAILED, new Update().set("error", e.getMessage()));
+        }
+    }
+
+    private GeminiAIService.AnalysisListener streamTo(String jobId) {
+        return new GeminiAIService.AnalysisListener() {
+            @Override
+            public void onRisk(AIRiskAssessment risk) {
+                publish(jobId, "risk", risk);
+            }
+
+            @Override
+            public void onMitigation(AIMitigationStrategy mitigation) {
+                publish(jobId, "mitigation", mitigation);
+            }
+
+            @Override
+            public void onInsights(AIProjectInsights insights) {
+                publish(jobId, "insights", insights);
+            }
+        };
+    }
+
+    private void updateStage(Query claim, String stage) {
+        AIAnalysisJob job = mongoTemplate.findAndModify(claim,
+                new Update().set("stage", stage),
+                FindAndModifyOptions.options().returnNew(true),
+                AIAnalysisJob.class);
+        if (job != null) {
+            publish(job);
+        }
+    }
+
+    /**
+     * Record a job's outcome, if the job still matches the given claim
+     */
+    private void finish(Query claim, String status, Update update) {
+        update.set("status", status)
+                .set("stage", AIAnalysisJob.SUCCEEDED.equals(status) ? "Done" : "Failed")
+                .set("finishedAt", LocalDateTime.now());
+        AIAnalysisJob job = mongoTemplate.findAndModify(claim, update,
+                FindAndModifyOptions.options().returnNew(true), AIAnalysisJob.class);
+        if (job == null) {
+            // Requeued as stale or failed by the recovery sweep while this worker was still going
+            logger.warn("Analysis job {} was reclaimed before it was marked {}", claim.getQueryObject().get("_id"), status);
+            return;
+        }
+        (AIAnalysisJob.SUCCEEDED.equals(status) ? succeededCounter : failedCounter).increment();
+        publish(job);
+    }
+
+    /**
+     * Requeue jobs whose worker went away and resubmit QUEUED jobs that are not in the executor
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.ai.jobs.recovery-ms:60000}", initialDelayString = "${app.ai.jobs.recovery-ms:60000}")
+    public void recoverJobs() {
+        LocalDateTime staleBefore = LocalDateTime.now().minusNanos(staleAfterMs * 1_000_000);
+        Criteria stale = Criteria.where("status").is(AIAnalysisJob.RUNNING).and("startedAt").lt(staleBefore);
+
+        mongoTemplate.updateMulti(new Query(new Criteria().andOperator(stale, Criteria.where("attempts").gte(maxAttempts))),
+                new Update()
+                        .set("status", AIAnalysisJob.FAILED)
+                        .set("stage", "Failed")
+                        .set("error", "Analysis did not complete after " + maxAttempts + " attempts")
+                        .set("finishedAt", LocalDateTime.now()),
+                AIAnalysisJob.class);
+        long requeued = mongoTemplate.updateMulti(new Query(stale),
+                new Update().set("status", AIAnalysisJob.QUEUED).set("stage", "Queued"),
+                AIAnalysisJob.class).getModifiedCount();
+
+        int room = executor.getQueue().remainingCapacity();
+        if (room == 0) {
+            return;
+        }
+        Query queued = new Query(Criteria.where("status").is(AIAnalysisJob.QUEUED))
+                .with(Sort.by(Sort.Direction.ASC, "createdAt"))
+                .limit(room);
+        queued.fields().include("_id");
+        int submitted = 0;
+        for (AIAnalysisJob job : mongoTemplate.find(queued, AIAnalysisJob.class)) {
+            if (enqueued.contains(job.getId())) {
+                continue;
+            }
+            if (!enqueue(job.getId())) {
+                break;
+            }
+            submitted++;
+        }
+        if (requeued > 0 || submitted > 0) {
+            logger.info("Recovered analysis jobs: {} requeued, {} submitted", requeued, submitted);
+        }
+    }
+
+    private Optional<AIAnalysisJob> findJob(String jobId, String username) {
+        return Optional.ofNullable(mongoTemplate.findOne(
+                new Query(Criteria.where("_id").is(jobId).and("username").is(username)), AIAnalysisJob.class));
+    }
+
+    private void publish(AIAnalysisJob job) {
+        List<SseEmitter> jobListeners = listeners.get(job.getId());
+        if (jobListeners == null) {
+            return;
+        }
+        AIAnalysisJobDto dto = toDto(job);
+        for (SseEmitter emitter : jobListeners) {
+            send(emitter, dto);
+            if (job.isFinished()) {
+                emitter.complete();
+            }
+        }
+        if (job.isFinished()) {
+            listeners.remove(job.getId());
+        }
+    }
+
+    private void publish(String jobId, String event, Object data) {
+        List<SseEmitter> jobListeners = listeners.get(jobId);
+        if (jobListeners != null) {
+            jobListeners.forEach(emitter -> send(emitter, event, data));
+        }
+    }
+
+    private void send(SseEmitter emitter, AIAnalysisJobDto dto) {
+        send(emitter, "job", dto);
+    }
+
+    private void send(SseEmitter emitter, String event, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data));
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; onError/onCompletion removes the emitter
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void removeListener(String jobId, SseEmitter emitter) {
+        listeners.computeIfPresent(jobId, (id, jobListeners) -> {
+            jobListeners.remove(emitter);
+            return jobListeners.isEmpty() ? null : jobListeners;
+        });
+    }
+
+    private AIAnalysisJobDto toDto(AIAnalysisJob job) {
+        AIAnalysisJobDto dto = new AIAnalysisJobDto();
+        dto.setId(job.getId());
+        dto.setType(job.getType());
+        dto.setProjectId(job.getProjectId());
+        dto.setStatus(job.getStatus());
+        dto.setStage(job.getStage());
+        dto.setError(job.getError());
+        dto.setRisks(job.getRisks());
+        dto.setAnalysis(job.getAnalysis());
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setStartedAt(job.getStartedAt());
+        dto.setFinishedAt(job.getFinishedAt());
+        return dto;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Running jobs stay RUNNING and are requeued by recoverJobs once stale
+        executor.shutdownNow();
+        listeners.values().forEach(jobListeners -> jobListeners.forEach(SseEmitter::complete));
+    }
+}
@@ -0,0 +1,198 @@
+package dev.doomsday.suitX.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.core.io.JsonEOFException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import dev.doomsday.suitX.dto.AIMitigationStrategy;
+import dev.doomsday.suitX.dto.AIProjectInsights;
+import dev.doomsday.suitX.dto.AIRiskAssessment;
+
+/**
+ * Incremental parser for the analysis JSON Gemini writes, fed text as it arrives.
+ *
+ * Tokens come from Jackson's non-blocking parser, so a chunk may end anywhere, even inside a
+ * string. Each element of identifiedRisks and suggestedMitigations, and the projectInsights
+ * object, is buffered as tokens and bound once, then handed to the listener straight away.
+ * Text before the root object (e.g. a ```json fence) and after it is ignored.
+ */
+class AnalysisStreamParser {
+
+    private static final String RISKS = "identifiedRisks";
+    private static final String MITIGATIONS = "suggestedMitigations";
+    private static final String INSIGHTS = "projectInsights";
+
+    private final ObjectMapper objectMapper;
+    private final GeminiAIService.AnalysisListener listener;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+
+    private final List<AIRiskAssessment> risks = new ArrayList<>();
+    private final List<AIMitigationStrategy> mitigations = new ArrayList<>();
+    private AIProjectInsights insights;
+
+    private boolean started;
+    private boolean complete;
+    private int depth;
+    private String field; // last field name of the root object
+    private String arrayField; // root array currently being read, if any
+
+    // Tokens of the element being buffered
+    private TokenBuffer element;
+    private String elementField;
+    private int elementDepth;
+
+    AnalysisStreamParser(ObjectMapper objectMapper, GeminiAIService.AnalysisListener listener) throws IOException {
+        this.objectMapper = objectMapper;
+        this.listener = listener;
+        this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /**
+     * Parse the next piece of the model's text, emitting every element it completes
+     */
+    void feed(String text) throws IOException {
+        if (complete || text.isEmpty()) {
+            return;
+        }
+        if (!started) {
+            int start = text.indexOf('{');
+            if (start < 0) {
+                return;
+            }
+            text = text.substring(start);
+            started = true;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        feeder.feedInput(bytes, 0, bytes.length);
+        drain();
+    }
+
+    /**
+     * Signal that the model has finished writing. Output cut off part way leaves the parser
+     * incomplete, keeping whatever elements were finished before the cut.
+     */
+    void finish() throws IOException {
+        try {
+            if (started && !complete) {
+                feeder.endOfInput();
+                drain();
+            }
+        } catch (JsonEOFException e) {
+            // Truncated; isComplete() stays false
+        } finally {
+            parser.close();
+        }
+    }
+
+    /**
+     * Whether the whole root object has been read
+     */
+    boolean isComplete() {
+        return complete;
+    }
+
+    List<AIRiskAssessment> getRisks() {
+        return risks;
+    }
+
+    List<AIMitigationStrategy> getMitigations() {
+        return mitigations;
+    }
+
+    AIProjectInsights getInsights() {
+        return insights;
+    }
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while (!complete && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            if (element != null) {
+                element.copyCurrentEvent(parser);
+                if (token.isStructStart()) {
+                    elementDepth++;
+                } else if (token.isStructEnd() && --elementDepth == 0) {
+                    emit();
+                }
+                continue;
+            }
+
+            switch (token) {
+                case START_OBJECT -> {
+                    if ((depth == 2 && arrayField != null) || (depth == 1 && INSIGHTS.equals(field))) {
+                        startElement(depth == 2 ? arrayField : INSIGHTS);
+                    } else {
+                        depth++;
+                    }
+                }
+                case START_ARRAY -> {
+                    if (depth == 0) {
+                        throw new JsonParseException(parser, "Expected the analysis to be a JSON object");
+                    }
+                    if (depth == 1 && (RISKS.equals(field) || MITIGATIONS.equals(field))) {
+                        arrayField = field;
+                    }
+                    depth++;
+                }
+                case END_OBJECT, END_ARRAY -> {
+                    depth--;
+                    if (depth == 1) {
+                        arrayField = null;
+                    } else if (depth == 0) {
+                        complete = true;
+                    }
+                }
+                case FIELD_NAME -> {
+                    if (depth == 1) {
+                        field = parser.currentName();
+                    }
+                }
+                default -> {
+                    if (depth == 0) {
+                        throw new JsonParseException(parser, "Expected the analysis to be a JSON object");
+                    }
+                }
+            }
+        }
+    }
+
+    private void startElement(String target) throws IOException {
+        element = new TokenBuffer(parser);
+        element.copyCurrentEvent(parser);
+        elementField = target;
+        elementDepth = 1;
+    }
+
+    private void emit() throws IOException {
+        try (JsonParser tokens = element.asParser(objectMapper)) {
+            switch (elementField) {
+                case RISKS -> {
+                    AIRiskAssessment risk = objectMapper.readValue(tokens, AIRiskAssessment.class);
+                    risks.add(risk);
+                    listener.onRisk(risk);
+                }
+                case MITIGATIONS -> {
+                    AIMitigationStrategy mitigation = objectMapper.readValue(tokens, AIMitigationStrategy.class);
+                    mitigations.add(mitigation);
+                    listener.onMitigation(mitigation);
+                }
+                default -> {
+                    insights = objectMapper.readValue(tokens, AIProjectInsights.class);
+                    listener.onInsights(insights);
+                }
+            }
+        } finally {
+            element = null;
+        }
+    }
+}
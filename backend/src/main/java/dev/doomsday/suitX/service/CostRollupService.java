@@ -0,0 +1,278 @@
+package dev.doomsday.suitX.service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import dev.doomsday.suitX.dto.CostRollupDto;
+import dev.doomsday.suitX.model.CostRollup;
+import dev.doomsday.suitX.model.Mitigation;
+import dev.doomsday.suitX.model.Project;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Maintains per-project and per-risk mitigation cost totals in the cost_rollups collection.
+ *
+ * Every mitigation write applies the difference between the mitigation's contribution before
+ * and after the write as $inc deltas, so a rollup is always one small document read.
+ * A nightly aggregation recomputes the totals from the mitigations and corrects any drift.
+ */
+@Service
+@RequiredArgsConstructor
+public class CostRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CostRollupService.class);
+
+    // Sums within a cent of each other are treated as equal during reconciliation
+    private static final double TOLERANCE = 0.01;
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * What one mitigation adds to the rollups of its project and risk
+     */
+    public record Contribution(String projectId, String riskId,
+                               double estimated, double actual, double committed) {
+        static final Contribution NONE = new Contribution(null, null, 0, 0, 0);
+    }
+
+    /**
+     * Capture a mitigation's contribution. Take it before changing the entity and again after saving it.
+     */
+    public Contribution contributionOf(Mitigation mitigation) {
+        if (mitigation == null) {
+            return Contribution.NONE;
+        }
+        String status = mitigation.getStatus();
+        double estimated = mitigation.getEstimatedCost() != null ? mitigation.getEstimatedCost() : 0.0;
+        double actual = mitigation.getActualCost() != null ? mitigation.getActualCost() : 0.0;
+        boolean cancelled = "CANCELLED".equals(status);
+        boolean open = !cancelled && !"COMPLETED".equals(status);
+        return new Contribution(mitigation.getProjectId(), mitigation.getRelatedRiskId(),
+                cancelled ? 0.0 : estimated, actual, open ? estimated : 0.0);
+    }
+
+    /**
+     * Apply the change from one contribution to another. Pass contributionOf(null)
+     * on the before side for creates and on the after side for deletes.
+     */
+    public void applyChange(Contribution before, Contribution after) {
+        try {
+            applyChange(CostRollup.PROJECT, before.projectId(), after.projectId(), before, after);
+            applyChange(CostRollup.RISK, before.riskId(), after.riskId(), before, after);
+        } catch (Exception e) {
+            // The nightly reconciliation will correct the totals; don't fail the mitigation write
+            logger.warn("Failed to update cost rollups: {}", e.getMessage());
+        }
+    }
+
+    private void applyChange(String scopeType, String beforeId, String afterId,
+                             Contribution before, Contribution after) {
+        if (Objects.equals(beforeId, afterId)) {
+            increment(scopeType, afterId,
+                    after.estimated() - before.estimated(),
+                    after.actual() - before.actual(),
+                    after.committed() - before.committed(),
+                    0);
+            return;
+        }
+        // The mitigation moved to another project or risk
+        increment(scopeType, beforeId, -before.estimated(), -before.actual(), -before.committed(), -1);
+        increment(scopeType, afterId, after.estimated(), after.actual(), after.committed(), 1);
+    }
+
+    private void increment(String scopeType, String scopeId, double estimated, double actual,
+                           double committed, long count) {
+        if (scopeId == null || (estimated == 0 && actual == 0 && committed == 0 && count == 0)) {
+            return;
+        }
+        Update update = new Update()
+                .inc("estimatedCost", estimated)
+                .inc("actualCost", actual)
+                .inc("committedCost", committed)
+                .inc("mitigationCount", count)
+                .set("updatedAt", LocalDateTime.now())
+                .setOnInsert("scopeType", scopeType)
+                .setOnInsert("scopeId", scopeId);
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(CostRollup.idFor(scopeType, scopeId))),
+                update, CostRollup.class);
+    }
+
+    /**
+     * Get the cost rollup of a project, with the remaining budget
+     */
+    public CostRollupDto getProjectCosts(String projectId) {
+        Query budgetQuery = new Query(Criteria.where("_id").is(projectId));
+        budgetQuery.fields().include("budget");
+        Project project = mongoTemplate.findOne(budgetQuery, Project.class);
+        if (project == null) {
+            throw new RuntimeException("Project not found with id: " + projectId);
+        }
+
+        CostRollupDto dto = getRollup(CostRollup.PROJECT, projectId);
+        dto.setBudget(project.getBudget());
+        if (project.getBudget() != null) {
+            dto.setRemainingBudget(project.getBudget() - dto.getActualCost() - dto.getCommittedCost());
+        }
+        return dto;
+    }
+
+    /**
+     * Get the cost rollup of a risk
+     */
+    public CostRollupDto getRiskCosts(String riskId) {
+        return getRollup(CostRollup.RISK, riskId);
+    }
+
+    private CostRollupDto getRollup(String scopeType, String scopeId) {
+        CostRollup rollup = mongoTemplate.findById(CostRollup.idFor(scopeType, scopeId), CostRollup.class);
+        CostRollupDto dto = new CostRollupDto();
+        dto.setScopeType(scopeType);
+        dto.setScopeId(scopeId);
+        dto.setEstimatedCost(rollup != null ? rollup.getEstimatedCost() : 0.0);
+        dto.setActualCost(rollup != null ? rollup.getActualCost() : 0.0);
+        dto.setCommittedCost(rollup != null ? rollup.getCommittedCost() : 0.0);
+        dto.setMitigationCount(rollup != null ? rollup.getMitigationCount() : 0L);
+        if (rollup != null) {
+            dto.setUpdatedAt(rollup.getUpdatedAt());
+            dto.setReconciledAt(rollup.getReconciledAt());
+        }
+        return dto;
+    }
+
+    /**
+     * Build the rollups from scratch when the collection is empty (first start after upgrade)
+     */
+    public void initializeIfEmpty() {
+        if (mongoTemplate.estimatedCount(CostRollup.class) == 0
+                && mongoTemplate.estimatedCount(Mitigation.class) > 0) {
+            reconcile();
+        }
+    }
+
+    /**
+     * Recompute every rollup from the mitigations in one aggregation and overwrite the ones that drifted
+     */
+    @Scheduled(cron = "${app.costs.reconcile-cron:0 30 2 * * *}")
+    public void reconcile() {
+        Map<String, CostRollup> expected = new HashMap<>();
+        Document facets = mongoTemplate.aggregate(
+                Aggregation.newAggregation(reconcilePipeline()), Mitigation.class, Document.class)
+                .getUniqueMappedResult();
+        if (facets != null) {
+            collect(expected, CostRollup.PROJECT, facets.getList("byProject", Document.class, List.of()));
+            collect(expected, CostRollup.RISK, facets.getList("byRisk", Document.class, List.of()));
+        }
+
+        Map<String, CostRollup> stored = new HashMap<>();
+        for (CostRollup rollup : mongoTemplate.findAll(CostRollup.class)) {
+            stored.put(rollup.getId(), rollup);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CostRollup.class);
+        int drifted = 0;
+
+        for (CostRollup rollup : expected.values()) {
+            CostRollup current = stored.remove(rollup.getId());
+            boolean matches = current != null && sameTotals(current, rollup);
+            Update update = new Update().set("reconciledAt", now);
+            if (!matches) {
+                update.set("scopeType", rollup.getScopeType())
+                        .set("scopeId", rollup.getScopeId())
+                        .set("estimatedCost", rollup.getEstimatedCost())
+                        .set("actualCost", rollup.getActualCost())
+                        .set("committedCost", rollup.getCommittedCost())
+                        .set("mitigationCount", rollup.getMitigationCount())
+                        .set("updatedAt", now);
+                drifted++;
+            }
+            bulk.upsert(new Query(Criteria.where("_id").is(rollup.getId())), update);
+        }
+
+        // Rollups whose mitigations are all gone
+        for (CostRollup orphan : stored.values()) {
+            bulk.remove(new Query(Criteria.where("_id").is(orphan.getId())));
+            drifted++;
+        }
+
+        if (!expected.isEmpty() || drifted > 0) {
+            bulk.execute();
+        }
+        logger.info("Reconciled {} cost rollups, corrected {}", expected.size(), drifted);
+    }
+
+    private List<AggregationOperation> reconcilePipeline() {
+        Document estimated = new Document("$cond", List.of(
+                new Document("$eq", List.of("$status", "CANCELLED")),
+                0,
+                new Document("$ifNull", List.of("$estimatedCost", 0))));
+        Document committed = new Document("$cond", List.of(
+                new Document("$in", List.of("$status", List.of("COMPLETED", "CANCELLED"))),
+                0,
+                new Document("$ifNull", List.of("$estimatedCost", 0))));
+        Document project = new Document("$project", new Document("projectId", 1)
+                .append("relatedRiskId", 1)
+                .append("estimated", estimated)
+                .append("actual", new Document("$ifNull", List.of("$actualCost", 0)))
+                .append("committed", committed));
+
+        Document facet = new Document("$facet", new Document()
+                .append("byProject", List.of(
+                        new Document("$match", new Document("projectId", new Document("$ne", null))),
+                        groupBy("$projectId")))
+                .append("byRisk", List.of(
+                        new Document("$match", new Document("relatedRiskId", new Document("$ne", null))),
+                        groupBy("$relatedRiskId"))));
+
+        return List.of(context -> project, context -> facet);
+    }
+
+    private Document groupBy(String field) {
+        return new Document("$group", new Document("_id", field)
+                .append("estimated", new Document("$sum", "$estimated"))
+                .append("actual", new Document("$sum", "$actual"))
+                .append("committed", new Document("$sum", "$committed"))
+                .append("count", new Document("$sum", 1)));
+    }
+
+    private void collect(Map<String, CostRollup> expected, String scopeType, List<Document> rows) {
+        for (Document row : rows) {
+            CostRollup rollup = new CostRollup();
+            rollup.setScopeType(scopeType);
+            rollup.setScopeId(row.get("_id").toString());
+            rollup.setId(CostRollup.idFor(scopeType, rollup.getScopeId()));
+            rollup.setEstimatedCost(row.get("estimated", Number.class).doubleValue());
+            rollup.setActualCost(row.get("actual", Number.class).doubleValue());
+            rollup.setCommittedCost(row.get("committed", Number.class).doubleValue());
+            rollup.setMitigationCount(row.get("count", Number.class).longValue());
+            expected.put(rollup.getId(), rollup);
+        }
+    }
+
+    private boolean sameTotals(CostRollup a, CostRollup b) {
+        return close(a.getEstimatedCost(), b.getEstimatedCost())
+                && close(a.getActualCost(), b.getActualCost())
+                && close(a.getCommittedCost(), b.getCommittedCost())
+                && Objects.equals(a.getMitigationCount(), b.getMitigationCount());
+    }
+
+    private boolean close(Double a, Double b) {
+        return a != null && b != null && Math.abs(a - b) < TOLERANCE;
+    }
+}
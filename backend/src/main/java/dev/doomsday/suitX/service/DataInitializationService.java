@@ -23,12 +23,20 @@ public class DataInitializationService implements CommandLineRunner {
     private final ProjectRepository projectRepository;
     private final RiskRepository riskRepository;
     private final MitigationRepository mitigationRepository;
+    private final TaskDiscussionService taskDiscussionService;
+    private final TaskService taskService;
+    private final ResidualRiskService residualRiskService;
+    private final CostRollupService costRollupService;
 
     @Override
     public void run(String... args) throws Exception {
         initializeProjects();
         initializeRisks();
         initializeMitigations();
+        taskDiscussionService.migrateEmbeddedDiscussions();
+        taskService.backfillVersions();
+        residualRiskService.backfillMissingScores();
+        costRollupService.initializeIfEmpty();
     }
 
     private void initializeProjects() {
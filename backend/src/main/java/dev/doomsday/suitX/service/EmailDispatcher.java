@@ -0,0 +1,258 @@
+package dev.doomsday.suitX.service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Sends emails off the request thread.
+ *
+ * Emails wait in a bounded queue for a small pool of workers. A send that fails with a
+ * MailException is retried with exponential backoff; after max-attempts it is dead-lettered
+ * (logged, counted and kept in a short in-memory list). When the queue is full the email is
+ * rejected rather than blocking the caller.
+ */
+@Service
+public class EmailDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailDispatcher.class);
+
+    private static final int DEAD_LETTERS_KEPT = 100;
+
+    /**
+     * An email ready to send. The plain-text alternative may be null. The category (e.g. "welcome") is used in logs.
+     */
+    public record OutgoingEmail(String to, String subject, String html, String text, String category) {
+    }
+
+    /**
+     * An email that could not be delivered
+     */
+    public record DeadLetter(OutgoingEmail email, int attempts, String error) {
+    }
+
+    /**
+     * Told the final outcome of a dispatched email, after any retries
+     */
+    public interface DeliveryListener {
+        void delivered();
+
+        void deadLettered(String error);
+    }
+
+    private static final DeliveryListener NO_LISTENER = new DeliveryListener() {
+        @Override
+        public void delivered() {
+        }
+
+        @Override
+        public void deadLettered(String error) {
+        }
+    };
+
+    private final JavaMailSender mailSender;
+    private final String fromEmail;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService retries;
+    private final Deque<DeadLetter> deadLetters = new ArrayDeque<>();
+
+    private final Timer sendTimer;
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter deadCounter;
+    private final Counter rejectedCounter;
+
+    public EmailDispatcher(JavaMailSender mailSender,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.email.from}") String fromEmail,
+                           @Value("${app.email.workers:2}") int workerCount,
+                           @Value("${app.email.queue-capacity:1000}") int queueCapacity,
+                           @Value("${app.email.max-attempts:5}") int maxAttempts,
+                           @Value("${app.email.initial-backoff-ms:2000}") long initialBackoffMs,
+                           @Value("${app.email.max-backoff-ms:300000}") long maxBackoffMs) {
+        this.mailSender = mailSender;
+        this.fromEmail = fromEmail;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), namedThreads("email-worker"));
+        this.retries = Executors.newSingleThreadScheduledExecutor(namedThreads("email-retry"));
+
+        Gauge.builder("email.queue.depth", workers, executor -> executor.getQueue().size())
+                .description("Emails waiting for a worker")
+                .register(meterRegistry);
+        this.sendTimer = Timer.builder("email.send").description("SMTP send time").register(meterRegistry);
+        this.sentCounter = Counter.builder("email.sent").register(meterRegistry);
+        this.retriedCounter = Counter.builder("email.retried").register(meterRegistry);
+        this.deadCounter = Counter.builder("email.dead").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("email.rejected")
+                .description("Emails dropped because the queue was full")
+                .register(meterRegistry);
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Queue an email for sending. Never blocks.
+     * @return false if the queue is full and the email was dropped
+     */
+    public boolean dispatch(OutgoingEmail email) {
+        return submit(email, 1, NO_LISTENER);
+    }
+
+    /**
+     * Queue an email and report its final outcome to the listener. Never blocks.
+     * @return false if the queue is full; the listener is not called
+     */
+    public boolean dispatch(OutgoingEmail email, DeliveryListener listener) {
+        return submit(email, 1, listener);
+    }
+
+    /**
+     * Number of emails that can be queued right now without being rejected
+     */
+    public int remainingCapacity() {
+        return workers.getQueue().remainingCapacity();
+    }
+
+    private boolean submit(OutgoingEmail email, int attempt, DeliveryListener listener) {
+        try {
+            workers.execute(() -> send(email, attempt, listener));
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            logger.error("Email queue full, dropping {} email to {}", email.category(), email.to());
+            return false;
+        }
+    }
+
+    private void send(OutgoingEmail email, int attempt, DeliveryListener listener) {
+        Timer.Sample sample = Timer.start();
+        try {
+            mailSender.send(toMimeMessage(email));
+            sentCounter.increment();
+            logger.info("Sent {} email to {}", email.category(), email.to());
+            listener.delivered();
+        } catch (MailParseException | MailPreparationException e) {
+            // The message itself is bad; retrying will not help
+            deadLetter(email, attempt, e, listener);
+        } catch (MailException e) {
+            if (attempt >= maxAttempts) {
+                deadLetter(email, attempt, e, listener);
+                return;
+            }
+            long delay = backoff(attempt);
+            retriedCounter.increment();
+            logger.warn("Failed to send {} email to {} (attempt {}), retrying in {} ms: {}",
+                    email.category(), email.to(), attempt, delay, e.getMessage());
+            try {
+                retries.schedule(() -> {
+                    if (!submit(email, attempt + 1, listener)) {
+                        deadLetter(email, attempt, e, listener);
+                    }
+                }, delay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException shuttingDown) {
+                // Not dead-lettered: an outbox message stays leased and is picked up again after a restart
+                logger.warn("Shutting down, not retrying {} email to {}", email.category(), email.to());
+            }
+        } finally {
+            sample.stop(sendTimer);
+        }
+    }
+
+    private MimeMessage toMimeMessage(OutgoingEmail email) {
+        try {
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+            helper.setFrom(fromEmail);
+            helper.setTo(email.to());
+            helper.setSubject(email.subject());
+            if (email.text() != null) {
+                helper.setText(email.text(), email.html());
+            } else {
+                helper.setText(email.html(), true);
+            }
+            return message;
+        } catch (MessagingException e) {
+            throw new MailPreparationException("Could not build " + email.category() + " email", e);
+        }
+    }
+
+    /**
+     * Delay before the next attempt: initial-backoff doubled per failed attempt, capped at max-backoff
+     */
+    long backoff(int attempt) {
+        long delay = initialBackoffMs << Math.min(attempt - 1, 30);
+        return Math.min(delay, maxBackoffMs);
+    }
+
+    private void deadLetter(OutgoingEmail email, int attempts, Exception error, DeliveryListener listener) {
+        deadCounter.increment();
+        logger.error("Giving up on {} email to {} after {} attempts: {}",
+                email.category(), email.to(), attempts, error.getMessage());
+        synchronized (deadLetters) {
+            deadLetters.addLast(new DeadLetter(email, attempts, error.getMessage()));
+            while (deadLetters.size() > DEAD_LETTERS_KEPT) {
+                deadLetters.removeFirst();
+            }
+        }
+        listener.deadLettered(error.getMessage());
+    }
+
+    /**
+     * The most recent emails that could not be delivered
+     */
+    public List<DeadLetter> getDeadLetters() {
+        synchronized (deadLetters) {
+            return List.copyOf(deadLetters);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        retries.shutdownNow();
+        workers.shutdown();
+        if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+            logger.warn("Email workers did not finish; {} emails not sent", workers.shutdownNow().size());
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package dev.doomsday.suitX.service;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import dev.doomsday.suitX.model.EmailOutboxMessage;
+
+/**
+ * Durable queue in front of {@link EmailDispatcher}, backed by the email_outbox collection.
+ *
+ * Emails are inserted with a unique idempotency key, so queueing the same email twice (e.g. a
+ * retried request) is a no-op. Every instance polls the outbox and claims due messages with
+ * findAndModify, which sets a lease; the dispatcher sends them (with its own retries) and the
+ * outcome is written back. A message whose lease runs out, e.g. because the instance holding it
+ * stopped, is claimed again by the next poll. Delivery is at-least-once: an instance that
+ * stalls past its lease can race the instance that reclaimed the message.
+ */
+@Service
+public class EmailOutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxService.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final EmailDispatcher emailDispatcher;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Value("${app.email.outbox.batch-size:50}")
+    private int batchSize;
+
+    // Must outlast the dispatcher's retries for one message
+    @Value("${app.email.outbox.lease-ms:600000}")
+    private long leaseMs;
+
+    // A message still not delivered after this many leases is marked DEAD
+    @Value("${app.email.outbox.max-claims:3}")
+    private int maxClaims;
+
+    public EmailOutboxService(MongoTemplate mongoTemplate, EmailDispatcher emailDispatcher) {
+        this.mongoTemplate = mongoTemplate;
+        this.emailDispatcher = emailDispatcher;
+    }
+
+    /**
+     * Store an email for delivery
+     * @param idempotencyKey Unique per email, e.g. template:entityId:event:recipient; null for no deduplication
+     * @return true if the email was queued now, false if one with the same key already was
+     */
+    public boolean enqueue(EmailDispatcher.OutgoingEmail email, String idempotencyKey) {
+        LocalDateTime now = LocalDateTime.now();
+        EmailOutboxMessage message = new EmailOutboxMessage();
+        message.setIdempotencyKey(idempotencyKey != null ? idempotencyKey : UUID.randomUUID().toString());
+        message.setToEmail(email.to());
+        message.setSubject(email.subject());
+        message.setHtml(email.html());
+        message.setText(email.text());
+        message.setCategory(email.category());
+        message.setNextAttemptAt(now);
+        message.setCreatedAt(now);
+        try {
+            mongoTemplate.insert(message);
+            return true;
+        } catch (DuplicateKeyException e) {
+            logger.debug("Email {} already queued, skipping", idempotencyKey);
+            return false;
+        }
+    }
+
+    /**
+     * Claim due messages and hand them to the dispatcher, as far as its queue has room
+     * @return Number of messages dispatched
+     */
+    @Scheduled(fixedDelayString = "${app.email.outbox.poll-ms:1000}")
+    public int relay() {
+        int dispatched = 0;
+        while (dispatched < batchSize && emailDispatcher.remainingCapacity() > 0) {
+            EmailOutboxMessage message = claim();
+            if (message == null) {
+                break;
+            }
+            if (message.getClaims() > maxClaims) {
+                finish(message, EmailOutboxMessage.DEAD, "Not delivered after " + maxClaims + " leases");
+                continue;
+            }
+            if (!emailDispatcher.dispatch(toOutgoingEmail(message), new OutboxListener(message))) {
+                release(message);
+                break;
+            }
+            dispatched++;
+        }
+        return dispatched;
+    }
+
+    /**
+     * Atomically lease a message whose lease expired, or else the oldest due PENDING one.
+     * Each branch is its own findAndModify so it walks its own index in order; expired leases
+     * go first so a steady stream of new messages cannot hold them back.
+     */
+    private EmailOutboxMessage claim() {
+        LocalDateTime now = LocalDateTime.now();
+        EmailOutboxMessage expired = claim(new Query(Criteria.where("status").is(EmailOutboxMessage.SENDING)
+                .and("leaseUntil").lt(now))
+                .with(Sort.by(Sort.Direction.ASC, "leaseUntil")), now);
+        if (expired != null) {
+            return expired;
+        }
+        return claim(new Query(Criteria.where("status").is(EmailOutboxMessage.PENDING)
+                .and("nextAttemptAt").lte(now))
+                .with(Sort.by(Sort.Direction.ASC, "nextAttemptAt")), now);
+    }
+
+    private EmailOutboxMessage claim(Query query, LocalDateTime now) {
+        Update update = new Update()
+                .set("status", EmailOutboxMessage.SENDING)
+                .set("leaseOwner", instanceId)
+                .set("leaseUntil", now.plusNanos(leaseMs * 1_000_000))
+                .inc("claims", 1);
+        return mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), EmailOutboxMessage.class);
+    }
+
+    /**
+     * Give a claimed message back without counting the claim, e.g. when the dispatcher queue is full
+     */
+    private void release(EmailOutboxMessage message) {
+        mongoTemplate.updateFirst(leasedByUs(message), new Update()
+                .set("status", EmailOutboxMessage.PENDING)
+                .unset("leaseOwner")
+                .unset("leaseUntil")
+                .inc("claims", -1), EmailOutboxMessage.class);
+    }
+
+    private void finish(EmailOutboxMessage message, String status, String error) {
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update()
+                .set("status", status)
+                .unset("leaseOwner")
+                .unset("leaseUntil")
+                .set("expiresAt", now.plusDays(EmailOutboxMessage.RETENTION_DAYS));
+        if (EmailOutboxMessage.SENT.equals(status)) {
+            update.set("sentAt", now);
+        } else {
+            update.set("lastError", error);
+        }
+        // Only the current lease holder may record the outcome
+        if (mongoTemplate.updateFirst(leasedByUs(message), update, EmailOutboxMessage.class).getMatchedCount() == 0) {
+            logger.warn("Lease on email {} was lost before it was marked {}", message.getId(), status);
+        }
+    }
+
+    private Query leasedByUs(EmailOutboxMessage message) {
+        return new Query(Criteria.where("_id").is(message.getId())
+                .and("status").is(EmailOutboxMessage.SENDING)
+                .and("leaseOwner").is(instanceId));
+    }
+
+    private static EmailDispatcher.OutgoingEmail toOutgoingEmail(EmailOutboxMessage message) {
+        return new EmailDispatcher.OutgoingEmail(message.getToEmail(), message.getSubject(),
+                message.getHtml(), message.getText(), message.getCategory());
+    }
+
+    private class OutboxListener implements EmailDispatcher.DeliveryListener {
+        private final EmailOutboxMessage message;
+
+        private OutboxListener(EmailOutboxMessage message) {
+            this.message = message;
+        }
+
+        @Override
+        public void delivered() {
+            record(EmailOutboxMessage.SENT, null);
+        }
+
+        @Override
+        public void deadLettered(String error) {
+            record(EmailOutboxMessage.DEAD, error);
+        }
+
+        private void record(String status, String error) {
+            try {
+                finish(message, status, error);
+            } catch (DataAccessException e) {
+                // The lease will expire and the message is sent again
+                logger.error("Could not mark email {} as {}: {}", message.getId(), status, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package dev.doomsday.suitX.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An email template compiled once into literal and placeholder segments.
+ *
+ * Supports {@code {{name}}} placeholders and {@code {{#name}}...{{/name}}} sections, which are only
+ * rendered when the variable is non-empty. The plain-text alternative is derived from the same
+ * HTML source at compile time, so rendering is only a walk over the segments into a pre-sized buffer.
+ */
+final class EmailTemplate {
+
+    private static final Pattern TAG = Pattern.compile("\\{\\{([#/]?)(\\w+)}}");
+
+    private final String name;
+    private final Segment[] html;
+    private final Segment[] text;
+    private final int htmlLength;
+    private final int textLength;
+
+    private EmailTemplate(String name, Segment[] html, Segment[] text) {
+        this.name = name;
+        this.html = html;
+        this.text = text;
+        this.htmlLength = literalLength(html);
+        this.textLength = literalLength(text);
+    }
+
+    /**
+     * Compile an HTML template source
+     * @throws IllegalArgumentException if a section is not closed
+     */
+    static EmailTemplate compile(String name, String htmlSource) {
+        return new EmailTemplate(name, parse(name, htmlSource), parse(name, toPlainText(htmlSource)));
+    }
+
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Render the HTML body. Variables are HTML-escaped; missing variables render as empty.
+     */
+    String renderHtml(Map<String, String> variables) {
+        StringBuilder out = new StringBuilder(htmlLength + variableLength(variables) + 64);
+        write(html, variables, out, true);
+        return out.toString();
+    }
+
+    /**
+     * Render the plain-text alternative
+     */
+    String renderText(Map<String, String> variables) {
+        StringBuilder out = new StringBuilder(textLength + variableLength(variables));
+        write(text, variables, out, false);
+        return out.toString();
+    }
+
+    private static void write(Segment[] segments, Map<String, String> variables, StringBuilder out, boolean escape) {
+        for (Segment segment : segments) {
+            if (segment.children != null) {
+                String value = variables.get(segment.value);
+                if (value != null && !value.isEmpty()) {
+                    write(segment.children, variables, out, escape);
+                }
+            } else if (segment.variable) {
+                String value = variables.get(segment.value);
+                if (value == null) {
+                    continue;
+                }
+                if (escape) {
+                    appendEscaped(value, out);
+                } else {
+                    out.append(value);
+                }
+            } else {
+                out.append(segment.value);
+            }
+        }
+    }
+
+    static void appendEscaped(String value, StringBuilder out) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> out.append("&amp;");
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    private static int variableLength(Map<String, String> variables) {
+        int length = 0;
+        for (String value : variables.values()) {
+            if (value != null) {
+                length += value.length();
+            }
+        }
+        return length;
+    }
+
+    private static int literalLength(Segment[] segments) {
+        int length = 0;
+        for (Segment segment : segments) {
+            if (segment.children != null) {
+                length += literalLength(segment.children);
+            } else if (!segment.variable) {
+                length += segment.value.length();
+            }
+        }
+        return length;
+    }
+
+    private static Segment[] parse(String name, String source) {
+        List<List<Segment>> stack = new ArrayList<>();
+        List<String> open = new ArrayList<>();
+        stack.add(new ArrayList<>());
+
+        Matcher matcher = TAG.matcher(source);
+        int last = 0;
+        while (matcher.find()) {
+            List<Segment> current = stack.get(stack.size() - 1);
+            if (matcher.start() > last) {
+                current.add(Segment.literal(source.substring(last, matcher.start())));
+            }
+            last = matcher.end();
+
+            String kind = matcher.group(1);
+            String variable = matcher.group(2);
+            if (kind.equals("#")) {
+                open.add(variable);
+                stack.add(new ArrayList<>());
+            } else if (kind.equals("/")) {
+                if (open.isEmpty() || !open.get(open.size() - 1).equals(variable)) {
+                    throw new IllegalArgumentException("Unexpected {{/" + variable + "}} in email template " + name);
+                }
+                Segment[] children = stack.remove(stack.size() - 1).toArray(Segment[]::new);
+                stack.get(stack.size() - 1).add(Segment.section(open.remove(open.size() - 1), children));
+            } else {
+                current.add(Segment.variable(variable));
+            }
+        }
+        if (!open.isEmpty()) {
+            throw new IllegalArgumentException("Unclosed {{#" + open.get(open.size() - 1) + "}} in email template " + name);
+        }
+        if (last < source.length()) {
+            stack.get(0).add(Segment.literal(source.substring(last)));
+        }
+        return stack.get(0).toArray(Segment[]::new);
+    }
+
+    /**
+     * Turn the HTML source into a plain-text source, keeping the {{...}} tags.
+     * Only runs at compile time, so it favours readability over speed.
+     */
+    static String toPlainText(String html) {
+        String text = html
+                .replaceAll("(?is)<head.*?</head>", "")
+                .replaceAll("(?is)<style.*?</style>", "")
+                .replaceAll("(?is)<a\\s[^>]*href=\"([^\"]*)\"[^>]*>(.*?)</a>", "$2: $1")
+                .replaceAll("(?i)<br\\s*/?>", "\n")
+                .replaceAll("(?i)<li[^>]*>", "- ")
+                .replaceAll("(?i)</(p|div|h[1-6]|li|ul|tr)>", "\n")
+                .replaceAll("<[^>]+>", "")
+                .replace("&nbsp;", " ")
+                .replace("&lt;", "<")
+                .replace("&gt;", ">")
+                .replace("&quot;", "\"")
+                .replace("&#39;", "'")
+                .replace("&amp;", "&");
+
+        StringBuilder out = new StringBuilder(text.length());
+        boolean blank = true;
+        for (String line : text.split("\n")) {
+            String trimmed = line.strip();
+            if (trimmed.isEmpty()) {
+                if (!blank) {
+                    out.append('\n');
+                }
+                blank = true;
+            } else if (trimmed.matches("\\{\\{[#/]\\w+}}")) {
+                // Section tags on their own line should not leave a line behind
+                out.append(trimmed);
+            } else {
+                out.append(trimmed).append('\n');
+                blank = false;
+            }
+        }
+        return out.toString().strip() + "\n";
+    }
+
+    private static final class Segment {
+        private final String value;
+        private final boolean variable;
+        private final Segment[] children;
+
+        private Segment(String value, boolean variable, Segment[] children) {
+            this.value = value;
+            this.variable = variable;
+            this.children = children;
+        }
+
+        static Segment literal(String text) {
+            return new Segment(text, false, null);
+        }
+
+        static Segment variable(String name) {
+            return new Segment(name, true, null);
+        }
+
+        static Segment section(String name, Segment[] children) {
+            return new Segment(name, false, children);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package dev.doomsday.suitX.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads and compiles the email templates under classpath:templates/email once at startup
+ */
+@Component
+public class EmailTemplates {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailTemplates.class);
+
+    private static final String LOCATION = "classpath*:templates/email/*.html";
+
+    /**
+     * A rendered email body with its plain-text alternative
+     */
+    public record Rendered(String html, String text) {
+    }
+
+    private final Map<String, EmailTemplate> templates;
+
+    public EmailTemplates() throws IOException {
+        Map<String, EmailTemplate> compiled = new HashMap<>();
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(LOCATION)) {
+            String filename = resource.getFilename();
+            String name = filename.substring(0, filename.length() - ".html".length());
+            try (InputStream in = resource.getInputStream()) {
+                compiled.put(name, EmailTemplate.compile(name, new String(in.readAllBytes(), StandardCharsets.UTF_8)));
+            }
+        }
+        this.templates = Map.copyOf(compiled);
+        logger.info("Compiled {} email templates", templates.size());
+    }
+
+    /**
+     * Render a template by name (the file name without .html)
+     * @throws IllegalArgumentException if there is no such template
+     */
+    public Rendered render(String name, Map<String, String> variables) {
+        EmailTemplate template = templates.get(name);
+        if (template == null) {
+            throw new IllegalArgumentException("Unknown email template: " + name);
+        }
+        return new Rendered(template.renderHtml(variables), template.renderText(variables));
+    }
+}
@@ -4,14 +4,23 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.doomsday.suitX.dto.*;
 import dev.doomsday.suitX.model.Project;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -19,18 +28,51 @@ import java.util.*;
 @Service
 public class GeminiAIService {
 
+    private static final Logger logger = LoggerFactory.getLogger(GeminiAIService.class);
+
+    /**
+     * Receives each part of a streamed analysis as soon as the model has finished writing it
+     */
+    public interface AnalysisListener {
+        AnalysisListener NONE = new AnalysisListener() { };
+
+        default void onRisk(AIRiskAssessment risk) { }
+
+        default void onMitigation(AIMitigationStrategy mitigation) { }
+
+        default void onInsights(AIProjectInsights insights) { }
+    }
+
+    // Part of the response cache key, so changing it invalidates cached analyses
+    private static final Map<String, Object> GENERATION_CONFIG = Map.of(
+        "temperature", 0.7,
+        "topK", 40,
+        "topP", 0.95,
+        "maxOutputTokens", 16384
+    );
+
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
-
-    @Value("${gemini.api.key}")
-    private String apiKey;
+    private final AIAnalysisCache analysisCache;
 
     @Value("${gemini.api.url:https://generativelanguage.googleapis.com/v1beta/models/gemini-1.5-flash:generateContent}")
     private String apiUrl;
 
-    public GeminiAIService(ObjectMapper objectMapper) {
-        this.restTemplate = new RestTemplate();
+    // Defaults to the streamGenerateContent method of the model in gemini.api.url
+    @Value("${gemini.api.stream-url:}")
+    private String streamUrl;
+
+    // Longest a whole call may take, however steadily the response trickles in
+    @Value("${gemini.http.total-timeout-ms:300000}")
+    private long totalTimeoutMs;
+
+    /**
+     * @param geminiRestTemplate pooled client from GeminiClientConfig, which also sends the API key
+     */
+    public GeminiAIService(ObjectMapper objectMapper, AIAnalysisCache analysisCache, RestTemplate geminiRestTemplate) {
+        this.restTemplate = geminiRestTemplate;
         this.objectMapper = objectMapper;
+        this.analysisCache = analysisCache;
     }
 
     /**
@@ -38,28 +80,111 @@ public class GeminiAIService {
      */
     public AIAnalysisResponse analyzeProjectRisks(AIAnalysisRequest request) {
         try {
-            String prompt = buildRiskAnalysisPrompt(request);
-            String geminiResponse = callGeminiAPI(prompt);
-            return parseAIResponse(geminiResponse, request);
+            return analyze(buildRiskAnalysisPrompt(request), request);
         } catch (Exception e) {
             return createErrorResponse(request, e.getMessage());
         }
     }
 
     /**
-     * Analyze risks from an existing project (automatic analysis)
+     * Analyze risks from a form request, streaming the model's output and passing each risk,
+     * mitigation and the insights to the listener as soon as they are complete
+     */
+    public AIAnalysisResponse analyzeProjectRisks(AIAnalysisRequest request, AnalysisListener listener) {
+        try {
+            return analyzeStreaming(buildRiskAnalysisPrompt(request), request, listener);
+        } catch (Exception e) {
+            return createErrorResponse(request, e.getMessage());
+        }
+    }
+
+    /**
+     * Analyze risks from an existing project (automatic analysis).
+     * Not cached: its risks are saved to the project, so replaying an earlier analysis would only
+     * save the same risks again.
      */
     public AIAnalysisResponse analyzeExistingProject(Project project) {
         try {
-            String prompt = buildProjectRiskAnalysisPrompt(project);
-            String geminiResponse = callGeminiAPI(prompt);
-            AIAnalysisResponse response = parseAIResponse(geminiResponse, null);
-            return response;
+            return parseAIResponse(callGeminiAPI(buildProjectRiskAnalysisPrompt(project)), null);
         } catch (Exception e) {
             return createErrorResponse(null, e.getMessage());
         }
     }
 
+    /**
+     * Serve the analysis from the cache if this exact prompt was analysed before, otherwise call Gemini.
+     * Only successful analyses are cached.
+     */
+    private AIAnalysisResponse analyze(String prompt, AIAnalysisRequest request) {
+        String model = modelName();
+        String cacheKey = AIAnalysisCache.key(prompt, model, GENERATION_CONFIG);
+        Optional<AIAnalysisResponse> cached = analysisCache.get(cacheKey);
+        if (cached.isPresent()) {
+            return restamp(cached.get());
+        }
+
+        AIAnalysisResponse response = parseAIResponse(callGeminiAPI(prompt), request);
+        if ("SUCCESS".equals(response.getStatus())) {
+            analysisCache.put(cacheKey, model, response);
+        }
+        return response;
+    }
+
+    /**
+     * Like analyze, but reads Gemini's response as a server-sent event stream. A cached analysis
+     * is replayed to the listener in one go. If the stream breaks after some risks have arrived,
+     * those are returned as a PARTIAL analysis rather than discarded.
+     */
+    private AIAnalysisResponse analyzeStreaming(String prompt, AIAnalysisRequest request, AnalysisListener listener) throws IOException {
+        String model = modelName();
+        String cacheKey = AIAnalysisCache.key(prompt, model, GENERATION_CONFIG);
+        Optional<AIAnalysisResponse> cached = analysisCache.get(cacheKey).map(this::restamp);
+        if (cached.isPresent()) {
+            cached.get().getIdentifiedRisks().forEach(listener::onRisk);
+            cached.get().getSuggestedMitigations().forEach(listener::onMitigation);
+            if (cached.get().getProjectInsights() != null) {
+                listener.onInsights(cached.get().getProjectInsights());
+            }
+            return cached.get();
+        }
+
+        AnalysisStreamParser parser = new AnalysisStreamParser(objectMapper, listener);
+        try {
+            streamGeminiAPI(prompt, parser);
+        } catch (RuntimeException e) {
+            if (parser.getRisks().isEmpty()) {
+                throw e;
+            }
+            logger.warn("Gemini stream ended early after {} risks: {}", parser.getRisks().size(), e.getMessage());
+        }
+        parser.finish();
+
+        AIAnalysisResponse response = toResponse(parser, request);
+        if ("SUCCESS".equals(response.getStatus())) {
+            analysisCache.put(cacheKey, model, response);
+        }
+        return response;
+    }
+
+    /**
+     * Give a cached analysis its own id and timestamp, so each request gets a distinct analysis.
+     * The cache deserializes a new copy on every lookup, so this never changes the cached entry.
+     */
+    private AIAnalysisResponse restamp(AIAnalysisResponse cached) {
+        cached.setAnalysisId(UUID.randomUUID().toString());
+        cached.setAnalysisTimestamp(LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        return cached;
+    }
+
+    /**
+     * Model name from the API URL, e.g. gemini-2.5-flash
+     */
+    private String modelName() {
+        int start = apiUrl.indexOf("models/");
+        int end = apiUrl.indexOf(':', start + 1);
+        return start >= 0 && end > start ? apiUrl.substring(start + "models/".length(), end) : apiUrl;
+    }
+
     private String buildProjectRiskAnalysisPrompt(Project project) {
         StringBuilder prompt = new StringBuilder("""
             You are an expert project management consultant and risk analyst. Analyze the following project and provide a comprehensive risk assessment with mitigation strategies.
@@ -209,18 +334,99 @@ public class GeminiAIService {
     }
 
     private String callGeminiAPI(String prompt) {
-        Map<String, Object> requestBody = Map.of(
+        long deadline = System.nanoTime() + totalTimeoutMs * 1_000_000;
+        String response = restTemplate.execute(apiUrl, HttpMethod.POST,
+            httpRequest -> writeRequestBody(httpRequest, prompt, MediaType.APPLICATION_JSON),
+            httpResponse -> readBody(httpResponse.getBody(), deadline));
+
+        return extractTextFromGeminiResponse(response);
+    }
+
+    /**
+     * Call streamGenerateContent and feed the text of each event to the parser as it arrives
+     */
+    private void streamGeminiAPI(String prompt, AnalysisStreamParser parser) {
+        String url = (streamUrl == null || streamUrl.isBlank()
+                ? apiUrl.replace(":generateContent", ":streamGenerateContent")
+                : streamUrl) + "?alt=sse";
+        long deadline = System.nanoTime() + totalTimeoutMs * 1_000_000;
+
+        restTemplate.execute(url, HttpMethod.POST,
+            httpRequest -> writeRequestBody(httpRequest, prompt, MediaType.TEXT_EVENT_STREAM),
+            httpResponse -> {
+                readEvents(httpResponse.getBody(), parser, deadline);
+                return null;
+            });
+    }
+
+    private void writeRequestBody(ClientHttpRequest httpRequest, String prompt, MediaType accept) throws IOException {
+        httpRequest.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        httpRequest.getHeaders().setAccept(List.of(accept));
+        objectMapper.writeValue(StreamUtils.nonClosing(httpRequest.getBody()), buildRequestBody(prompt));
+    }
+
+    /**
+     * Read a whole response body; each read is bounded by the client's read timeout, the total by the deadline
+     */
+    private String readBody(InputStream stream, long deadline) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = stream.read(buffer)) != -1) {
+            checkDeadline(deadline);
+            body.write(buffer, 0, read);
+        }
+        return body.toString(StandardCharsets.UTF_8);
+    }
+
+    private void checkDeadline(long deadline) throws IOException {
+        if (System.nanoTime() - deadline > 0) {
+            throw new SocketTimeoutException("Gemini call exceeded " + totalTimeoutMs + " ms");
+        }
+    }
+
+    /**
+     * Read a server-sent event stream, passing the text of each event's candidate to the parser
+     */
+    private void readEvents(InputStream stream, AnalysisStreamParser parser, long deadline) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+        StringBuilder data = new StringBuilder();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            checkDeadline(deadline);
+            if (line.startsWith("data:")) {
+                if (data.length() > 0) {
+                    data.append('\n');
+                }
+                data.append(line, line.startsWith("data: ") ? 6 : 5, line.length());
+            } else if (line.isEmpty() && data.length() > 0) {
+                parser.feed(extractChunkText(data.toString()));
+                data.setLength(0);
+            }
+        }
+        if (data.length() > 0) {
+            parser.feed(extractChunkText(data.toString()));
+        }
+    }
+
+    private String extractChunkText(String chunk) throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (JsonNode part : objectMapper.readTree(chunk).at("/candidates/0/content/parts")) {
+            if (!part.path("thought").asBoolean()) {
+                text.append(part.path("text").asText());
+            }
+        }
+        return text.toString();
+    }
+
+    private Map<String, Object> buildRequestBody(String prompt) {
+        return Map.of(
             "contents", List.of(
                 Map.of("parts", List.of(
                     Map.of("text", prompt)
                 ))
             ),
-            "generationConfig", Map.of(
-                "temperature", 0.7,
-                "topK", 40,
-                "topP", 0.95,
-                "maxOutputTokens", 16384
-            ),
+            "generationConfig", GENERATION_CONFIG,
             "safetySettings", List.of(
                 Map.of("category", "HARM_CATEGORY_HARASSMENT", "threshold", "BLOCK_MEDIUM_AND_ABOVE"),
                 Map.of("category", "HARM_CATEGORY_HATE_SPEECH", "threshold", "BLOCK_MEDIUM_AND_ABOVE"),
@@ -228,20 +434,6 @@ public class GeminiAIService {
                 Map.of("category", "HARM_CATEGORY_DANGEROUS_CONTENT", "threshold", "BLOCK_MEDIUM_AND_ABOVE")
             )
         );
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        
-        HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
-        
-        String response = restTemplate.exchange(
-            apiUrl + "?key=" + apiKey,
-            HttpMethod.POST,
-            request,
-            String.class
-        ).getBody();
-
-        return extractTextFromGeminiResponse(response);
     }
 
     private String extractTextFromGeminiResponse(String response) {
@@ -255,67 +447,36 @@ public class GeminiAIService {
 
     private AIAnalysisResponse parseAIResponse(String aiResponse, AIAnalysisRequest request) {
         try {
-            // Clean the response (remove any markdown formatting)
-            String cleanJson = aiResponse.trim();
-            
-            // Remove markdown code fences
-            if (cleanJson.startsWith("```json")) {
-                cleanJson = cleanJson.substring(7);
-            } else if (cleanJson.startsWith("```")) {
-                cleanJson = cleanJson.substring(3);
-            }
-            
-            if (cleanJson.endsWith("```")) {
-                cleanJson = cleanJson.substring(0, cleanJson.length() - 3);
-            }
-            
-            cleanJson = cleanJson.trim();
-
-            JsonNode jsonNode = objectMapper.readTree(cleanJson);
-            
-            AIAnalysisResponse response = new AIAnalysisResponse();
-            response.setAnalysisId(UUID.randomUUID().toString());
-            response.setProjectName(request != null ? request.getProjectName() : "Auto-analyzed Project");
-            response.setAnalysisTimestamp(LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-            response.setStatus("SUCCESS");
-            response.setConfidenceScore(0.85);
-
-            // Parse risks
-            List<AIRiskAssessment> risks = new ArrayList<>();
-            JsonNode risksNode = jsonNode.get("identifiedRisks");
-            if (risksNode != null && risksNode.isArray()) {
-                for (JsonNode riskNode : risksNode) {
-                    AIRiskAssessment risk = objectMapper.treeToValue(riskNode, AIRiskAssessment.class);
-                    risks.add(risk);
-                }
-            }
-            response.setIdentifiedRisks(risks);
-
-            // Parse mitigations
-            List<AIMitigationStrategy> mitigations = new ArrayList<>();
-            JsonNode mitigationsNode = jsonNode.get("suggestedMitigations");
-            if (mitigationsNode != null && mitigationsNode.isArray()) {
-                for (JsonNode mitigationNode : mitigationsNode) {
-                    AIMitigationStrategy mitigation = objectMapper.treeToValue(mitigationNode, AIMitigationStrategy.class);
-                    mitigations.add(mitigation);
-                }
-            }
-            response.setSuggestedMitigations(mitigations);
-
-            // Parse insights
-            JsonNode insightsNode = jsonNode.get("projectInsights");
-            if (insightsNode != null) {
-                AIProjectInsights insights = objectMapper.treeToValue(insightsNode, AIProjectInsights.class);
-                response.setProjectInsights(insights);
-            }
-
-            return response;
-
+            // Single pass straight into the DTOs; any markdown fence around the JSON is skipped
+            AnalysisStreamParser parser = new AnalysisStreamParser(objectMapper, AnalysisListener.NONE);
+            parser.feed(aiResponse);
+            parser.finish();
+            return toResponse(parser, request);
         } catch (Exception e) {
             return createErrorResponse(request, "Failed to parse AI response: " + e.getMessage());
         }
     }
 
+    /**
+     * SUCCESS if the model's JSON was read to the end, PARTIAL if it was cut off after some risks
+     */
+    private AIAnalysisResponse toResponse(AnalysisStreamParser parser, AIAnalysisRequest request) {
+        if (!parser.isComplete() && parser.getRisks().isEmpty()) {
+            return createErrorResponse(request, "AI response ended before any risks were complete");
+        }
+
+        AIAnalysisResponse response = new AIAnalysisResponse();
+        response.setAnalysisId(UUID.randomUUID().toString());
+        response.setProjectName(request != null ? request.getProjectName() : "Auto-analyzed Project");
+        response.setAnalysisTimestamp(LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        response.setStatus(parser.isComplete() ? "SUCCESS" : "PARTIAL");
+        response.setConfidenceScore(0.85);
+        response.setIdentifiedRisks(parser.getRisks());
+        response.setSuggestedMitigations(parser.getMitigations());
+        response.setProjectInsights(parser.getInsights());
+        return response;
+    }
+
     private AIAnalysisResponse createErrorResponse(AIAnalysisRequest request, String errorMessage) {
         AIAnalysisResponse response = new AIAnalysisResponse();
         response.setAnalysisId(UUID.randomUUID().toString());
@@ -0,0 +1,184 @@
+package dev.doomsday.suitX.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import dev.doomsday.suitX.dto.MitigationActionDto;
+import dev.doomsday.suitX.dto.MitigationActionResultDto;
+import dev.doomsday.suitX.model.Mitigation;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Service for the action items embedded in a mitigation
+ * Each change is a single pipeline update that rewrites the one action and recomputes
+ * progressPercentage server-side, so the mitigation document never goes through the app
+ */
+@Service
+@RequiredArgsConstructor
+public class MitigationActionService {
+
+    private static final Set<String> ACTION_STATUSES = Set.of("PENDING", "IN_PROGRESS", "COMPLETED");
+
+    private final MongoTemplate mongoTemplate;
+    private final ResidualRiskService residualRiskService;
+
+    /**
+     * Add an action item to a mitigation
+     */
+    public MitigationActionResultDto addAction(String mitigationId, MitigationActionDto actionDto) {
+        if (actionDto.getDescription() == null || actionDto.getDescription().trim().isEmpty()) {
+            throw new IllegalArgumentException("Action description is required");
+        }
+        String status = actionDto.getStatus() != null ? actionDto.getStatus() : "PENDING";
+        validateStatus(status);
+
+        String actionId = UUID.randomUUID().toString();
+        Date now = toDate(LocalDateTime.now());
+
+        Document action = new Document("actionId", actionId)
+                .append("description", actionDto.getDescription())
+                .append("assignedTo", actionDto.getAssignedTo())
+                .append("status", status)
+                .append("dueDate", toDate(actionDto.getDueDate()))
+                .append("completedAt", "COMPLETED".equals(status) ? now : null);
+
+        AggregationOperation append = stage(new Document("actions", new Document("$concatArrays", List.of(
+                new Document("$ifNull", List.of("$actions", List.of())),
+                List.of(new Document("$literal", action))))));
+
+        return apply(mitigationId, actionId, new Query(Criteria.where("_id").is(mitigationId)), append, now);
+    }
+
+    /**
+     * Update one action item by actionId. Only the non-null fields of the DTO are changed.
+     */
+    public MitigationActionResultDto updateAction(String mitigationId, String actionId, MitigationActionDto actionDto) {
+        Date now = toDate(LocalDateTime.now());
+
+        Document changes = new Document();
+        if (actionDto.getDescription() != null) {
+            changes.append("description", literal(actionDto.getDescription()));
+        }
+        if (actionDto.getAssignedTo() != null) {
+            changes.append("assignedTo", literal(actionDto.getAssignedTo()));
+        }
+        if (actionDto.getDueDate() != null) {
+            changes.append("dueDate", literal(toDate(actionDto.getDueDate())));
+        }
+        if (actionDto.getStatus() != null) {
+            validateStatus(actionDto.getStatus());
+            changes.append("status", literal(actionDto.getStatus()));
+            // Keep the original completion time when an already completed action is completed again
+            changes.append("completedAt", "COMPLETED".equals(actionDto.getStatus())
+                    ? new Document("$ifNull", List.of("$$action.completedAt", literal(now)))
+                    : literal(null));
+        }
+        if (changes.isEmpty()) {
+            throw new IllegalArgumentException("No action fields to update");
+        }
+
+        // Rewrite only the matching element of the array
+        Document mapActions = new Document("$map", new Document("input", "$actions")
+                .append("as", "action")
+                .append("in", new Document("$cond", List.of(
+                        new Document("$eq", List.of("$$action.actionId", actionId)),
+                        new Document("$mergeObjects", List.of("$$action", changes)),
+                        "$$action"))));
+
+        Query query = new Query(Criteria.where("_id").is(mitigationId).and("actions.actionId").is(actionId));
+        return apply(mitigationId, actionId, query, stage(new Document("actions", mapActions)), now);
+    }
+
+    /**
+     * Convert an embedded action to its DTO
+     */
+    public MitigationActionDto convertToDto(Mitigation.Action action) {
+        MitigationActionDto dto = new MitigationActionDto();
+        dto.setActionId(action.getActionId());
+        dto.setDescription(action.getDescription());
+        dto.setAssignedTo(action.getAssignedTo());
+        dto.setStatus(action.getStatus());
+        dto.setDueDate(action.getDueDate());
+        dto.setCompletedAt(action.getCompletedAt());
+        return dto;
+    }
+
+    /**
+     * Run the action stage followed by the progress stage in one findAndModify,
+     * returning only the progress fields and the changed action
+     */
+    private MitigationActionResultDto apply(String mitigationId, String actionId, Query query,
+                                            AggregationOperation actionStage, Date now) {
+        AggregationUpdate update = AggregationUpdate.from(List.of(actionStage, progressStage(now)));
+
+        query.fields()
+                .include("progressPercentage", "updatedAt", "relatedRiskId")
+                .elemMatch("actions", Criteria.where("actionId").is(actionId));
+
+        Mitigation updated = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Mitigation.class);
+        if (updated == null) {
+            if (!mongoTemplate.exists(new Query(Criteria.where("_id").is(mitigationId)), Mitigation.class)) {
+                throw new RuntimeException("Mitigation not found with id: " + mitigationId);
+            }
+            throw new RuntimeException("Action not found with id: " + actionId);
+        }
+        residualRiskService.recompute(updated.getRelatedRiskId());
+
+        MitigationActionResultDto result = new MitigationActionResultDto();
+        result.setMitigationId(updated.getId());
+        result.setProgressPercentage(updated.getProgressPercentage());
+        result.setUpdatedAt(updated.getUpdatedAt());
+        if (updated.getActions() != null && !updated.getActions().isEmpty()) {
+            result.setAction(convertToDto(updated.getActions().get(0)));
+        }
+        return result;
+    }
+
+    /**
+     * progressPercentage = completed actions / all actions * 100, left unchanged when there are no actions
+     */
+    private AggregationOperation progressStage(Date now) {
+        Document completed = new Document("$size", new Document("$filter", new Document("input", "$actions")
+                .append("cond", new Document("$eq", List.of("$$this.status", "COMPLETED")))));
+        Document total = new Document("$size", "$actions");
+
+        Document progress = new Document("$cond", List.of(
+                new Document("$gt", List.of(total, 0)),
+                new Document("$multiply", List.of(new Document("$divide", List.of(completed, total)), 100)),
+                "$progressPercentage"));
+
+        return stage(new Document("progressPercentage", progress).append("updatedAt", literal(now)));
+    }
+
+    private AggregationOperation stage(Document fields) {
+        return context -> new Document("$set", fields);
+    }
+
+    private Document literal(Object value) {
+        return new Document("$literal", value);
+    }
+
+    private void validateStatus(String status) {
+        if (!ACTION_STATUSES.contains(status)) {
+            throw new IllegalArgumentException("Invalid action status: " + status);
+        }
+    }
+
+    private Date toDate(LocalDateTime dateTime) {
+        return dateTime != null ? Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant()) : null;
+    }
+}
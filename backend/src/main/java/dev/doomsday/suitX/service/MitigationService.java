@@ -1,13 +1,34 @@
 package dev.doomsday.suitX.service;
 
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.count;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.facet;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
+import dev.doomsday.suitX.config.CacheConfig;
+import dev.doomsday.suitX.dto.CursorPage;
 import dev.doomsday.suitX.dto.MitigationDto;
 import dev.doomsday.suitX.dto.MitigationSummaryDto;
 import dev.doomsday.suitX.model.Mitigation;
@@ -28,53 +49,80 @@ public class MitigationService {
     private final ProjectService projectService;
     private final NotificationService notificationService;
     private final EmailService emailService;
+    private final MongoTemplate mongoTemplate;
+    private final ReferenceLookupService referenceLookupService;
+    private final MitigationActionService mitigationActionService;
+    private final ResidualRiskService residualRiskService;
+    private final CostRollupService costRollupService;
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 100;
 
     public List<MitigationDto> getAllMitigations() {
-        return mitigationRepository.findAll().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return convertToDtos(mitigationRepository.findAll());
     }
 
     /**
-     * Get mitigations only for projects the current user has access to
+     * Get a page of mitigations from the projects the current user has access to, newest first
+     * Uses keyset pagination on _id so deep pages cost the same as the first one
      * @param username Username of the current user
-     * @return List of mitigations from user's accessible projects
+     * @param status Optional status filter
+     * @param priority Optional priority filter
+     * @param cursor Id of the last mitigation of the previous page, or null for the first page
+     * @param limit Page size, capped at MAX_PAGE_SIZE
+     * @return Page of mitigations from user's accessible projects
      */
-    public List<MitigationDto> getMitigationsForUser(String username) {
-        // Get all projects the user has access to
-        List<String> accessibleProjectIds = projectService.getProjectsForUser(username).stream()
-                .map(project -> project.getId())
-                .collect(Collectors.toList());
+    public CursorPage<MitigationDto> getMitigationsForUser(String username, String status, String priority,
+                                                          String cursor, int limit) {
+        List<String> accessibleProjectIds = projectService.getAccessibleProjectIds(username);
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        if (accessibleProjectIds.isEmpty()) {
+            return new CursorPage<>(List.of(), null, false);
+        }
         
-        // Get mitigations only for accessible projects
-        return mitigationRepository.findAll().stream()
-                .filter(mitigation -> accessibleProjectIds.contains(mitigation.getProjectId()))
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        Criteria criteria = Criteria.where("projectId").in(accessibleProjectIds);
+        if (status != null) {
+            criteria.and("status").is(status);
+        }
+        if (priority != null) {
+            criteria.and("priority").is(priority);
+        }
+        if (cursor != null) {
+            if (!ObjectId.isValid(cursor)) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            criteria.and("_id").lt(new ObjectId(cursor));
+        }
+        
+        // Fetch one extra row to know whether another page exists
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "_id"))
+                .limit(pageSize + 1);
+        List<Mitigation> mitigations = mongoTemplate.find(query, Mitigation.class);
+        
+        boolean hasMore = mitigations.size() > pageSize;
+        if (hasMore) {
+            mitigations = mitigations.subList(0, pageSize);
+        }
+        String nextCursor = hasMore ? mitigations.get(mitigations.size() - 1).getId() : null;
+        
+        return new CursorPage<>(convertToDtos(mitigations), nextCursor, hasMore);
     }
 
     public List<MitigationDto> getMitigationsByStatus(String status) {
-        return mitigationRepository.findByStatus(status).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return convertToDtos(mitigationRepository.findByStatus(status));
     }
 
     public List<MitigationDto> getMitigationsByPriority(String priority) {
-        return mitigationRepository.findByPriority(priority).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return convertToDtos(mitigationRepository.findByPriority(priority));
     }
 
     public List<MitigationDto> getMitigationsByAssignee(String assignee) {
-        return mitigationRepository.findByAssignee(assignee).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return convertToDtos(mitigationRepository.findByAssignee(assignee));
     }
 
     public List<MitigationDto> getMitigationsByProject(String projectId) {
-        return mitigationRepository.findByProjectId(projectId).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return convertToDtos(mitigationRepository.findByProjectId(projectId));
     }
 
     public Optional<MitigationDto> getMitigationById(String id) {
@@ -89,6 +137,9 @@ public class MitigationService {
         mitigation.setStatus("PLANNED"); // Default status
         mitigation.setProgressPercentage(0.0); // Default progress
         Mitigation savedMitigation = mitigationRepository.save(mitigation);
+        residualRiskService.recompute(savedMitigation.getRelatedRiskId());
+        costRollupService.applyChange(costRollupService.contributionOf(null),
+                costRollupService.contributionOf(savedMitigation));
         
         // Send notification and email if mitigation is assigned
         if (savedMitigation.getAssignee() != null) {
@@ -103,11 +154,20 @@ public class MitigationService {
         if (existingMitigation.isPresent()) {
             Mitigation mitigation = existingMitigation.get();
             String previousAssignee = mitigation.getAssignee(); // Store previous assignee
+            String previousRiskId = mitigation.getRelatedRiskId();
+            CostRollupService.Contribution previousCosts = costRollupService.contributionOf(mitigation);
             
             updateMitigationFields(mitigation, mitigationDto);
             mitigation.setUpdatedAt(LocalDateTime.now());
             Mitigation savedMitigation = mitigationRepository.save(mitigation);
             
+            // Refresh residual risk on the linked risk (and the old one if the link moved)
+            residualRiskService.recompute(savedMitigation.getRelatedRiskId());
+            if (previousRiskId != null && !previousRiskId.equals(savedMitigation.getRelatedRiskId())) {
+                residualRiskService.recompute(previousRiskId);
+            }
+            costRollupService.applyChange(previousCosts, costRollupService.contributionOf(savedMitigation));
+            
             // Send notification if assignee changed
             if (savedMitigation.getAssignee() != null && 
                 !savedMitigation.getAssignee().equals(previousAssignee)) {
@@ -120,18 +180,27 @@ public class MitigationService {
     }
 
     public void deleteMitigation(String id) {
+        Mitigation existing = mitigationRepository.findById(id).orElse(null);
         mitigationRepository.deleteById(id);
+        if (existing != null) {
+            residualRiskService.recompute(existing.getRelatedRiskId());
+            costRollupService.applyChange(costRollupService.contributionOf(existing),
+                    costRollupService.contributionOf(null));
+        }
     }
 
     public MitigationDto markAsCompleted(String id) {
         Optional<Mitigation> existingMitigation = mitigationRepository.findById(id);
         if (existingMitigation.isPresent()) {
             Mitigation mitigation = existingMitigation.get();
+            CostRollupService.Contribution previousCosts = costRollupService.contributionOf(mitigation);
             mitigation.setStatus("COMPLETED");
             mitigation.setCompletedAt(LocalDateTime.now());
             mitigation.setUpdatedAt(LocalDateTime.now());
             mitigation.setProgressPercentage(100.0);
             Mitigation savedMitigation = mitigationRepository.save(mitigation);
+            residualRiskService.recompute(savedMitigation.getRelatedRiskId());
+            costRollupService.applyChange(previousCosts, costRollupService.contributionOf(savedMitigation));
             return convertToDto(savedMitigation);
         }
         throw new RuntimeException("Mitigation not found with id: " + id);
@@ -141,6 +210,7 @@ public class MitigationService {
         Optional<Mitigation> existingMitigation = mitigationRepository.findById(id);
         if (existingMitigation.isPresent()) {
             Mitigation mitigation = existingMitigation.get();
+            CostRollupService.Contribution previousCosts = costRollupService.contributionOf(mitigation);
             mitigation.setProgressPercentage(progress);
             mitigation.setUpdatedAt(LocalDateTime.now());
             
@@ -153,34 +223,112 @@ public class MitigationService {
             }
             
             Mitigation savedMitigation = mitigationRepository.save(mitigation);
+            residualRiskService.recompute(savedMitigation.getRelatedRiskId());
+            costRollupService.applyChange(previousCosts, costRollupService.contributionOf(savedMitigation));
             return convertToDto(savedMitigation);
         }
         throw new RuntimeException("Mitigation not found with id: " + id);
     }
 
-    public MitigationSummaryDto getMitigationSummary() {
+    /**
+     * Get status, priority and overdue counts for the mitigations in the user's projects
+     * Computed in a single $facet aggregation and cached briefly per user
+     * @param username Username of the current user
+     */
+    @Cacheable(cacheNames = CacheConfig.MITIGATION_SUMMARY, key = "#username")
+    public MitigationSummaryDto getMitigationSummary(String username) {
         MitigationSummaryDto summary = new MitigationSummaryDto();
-        summary.setTotalMitigations(mitigationRepository.count());
-        summary.setActiveMitigations(mitigationRepository.countByStatus("ACTIVE"));
-        summary.setCompletedMitigations(mitigationRepository.countByStatus("COMPLETED"));
-        summary.setPlannedMitigations(mitigationRepository.countByStatus("PLANNED"));
-        summary.setHighPriorityMitigations(mitigationRepository.countByPriority("HIGH"));
-        summary.setMediumPriorityMitigations(mitigationRepository.countByPriority("MEDIUM"));
-        summary.setLowPriorityMitigations(mitigationRepository.countByPriority("LOW"));
+        List<String> accessibleProjectIds = projectService.getAccessibleProjectIds(username);
+        
+        Aggregation aggregation = newAggregation(
+            match(Criteria.where("projectId").in(accessibleProjectIds)),
+            facet(group("status").count().as("count")).as("byStatus")
+                .and(group("priority").count().as("count")).as("byPriority")
+                .and(
+                    match(Criteria.where("status").ne("COMPLETED").and("dueDate").lt(LocalDateTime.now())),
+                    count().as("count")
+                ).as("overdue")
+        );
+        Document result = mongoTemplate.aggregate(aggregation, Mitigation.class, Document.class)
+                .getUniqueMappedResult();
+        
+        Map<String, Long> byStatus = countsById(result, "byStatus");
+        Map<String, Long> byPriority = countsById(result, "byPriority");
+        
+        summary.setTotalMitigations(byStatus.values().stream().mapToLong(Long::longValue).sum());
+        summary.setActiveMitigations(byStatus.getOrDefault("ACTIVE", 0L));
+        summary.setCompletedMitigations(byStatus.getOrDefault("COMPLETED", 0L));
+        summary.setPlannedMitigations(byStatus.getOrDefault("PLANNED", 0L));
+        summary.setHighPriorityMitigations(byPriority.getOrDefault("HIGH", 0L));
+        summary.setMediumPriorityMitigations(byPriority.getOrDefault("MEDIUM", 0L));
+        summary.setLowPriorityMitigations(byPriority.getOrDefault("LOW", 0L));
         
-        // Calculate overdue mitigations
-        List<Mitigation> allMitigations = mitigationRepository.findAll();
-        LocalDateTime today = LocalDateTime.now();
-        long overdue = allMitigations.stream()
-                .filter(m -> !"COMPLETED".equals(m.getStatus()))
-                .filter(m -> m.getDueDate() != null && m.getDueDate().isBefore(today))
-                .count();
-        summary.setOverdueMitigations(overdue);
+        List<Document> overdue = result != null ? result.getList("overdue", Document.class, List.of()) : List.of();
+        summary.setOverdueMitigations(overdue.isEmpty() ? 0L : overdue.get(0).get("count", Number.class).longValue());
         
         return summary;
     }
 
+    private Map<String, Long> countsById(Document facets, String facet) {
+        Map<String, Long> counts = new HashMap<>();
+        if (facets == null) {
+            return counts;
+        }
+        for (Document bucket : facets.getList(facet, Document.class, List.of())) {
+            Object key = bucket.get("_id");
+            if (key != null) {
+                counts.put(key.toString(), bucket.get("count", Number.class).longValue());
+            }
+        }
+        return counts;
+    }
+
     private MitigationDto convertToDto(Mitigation mitigation) {
+        return convertToDtos(List.of(mitigation)).get(0);
+    }
+
+    /**
+     * Convert a list of mitigations, resolving usernames, project names and risk titles
+     * with one bulk lookup per collection instead of up to four reads per mitigation
+     */
+    private List<MitigationDto> convertToDtos(List<Mitigation> mitigations) {
+        Set<String> userIds = new HashSet<>();
+        Set<String> projectIds = new HashSet<>();
+        Set<String> riskIds = new HashSet<>();
+        for (Mitigation mitigation : mitigations) {
+            userIds.add(mitigation.getAssignee());
+            userIds.add(mitigation.getCreatedBy());
+            projectIds.add(mitigation.getProjectId());
+            riskIds.add(mitigation.getRelatedRiskId());
+        }
+        
+        Map<String, String> usernames = referenceLookupService.usernames(userIds);
+        Map<String, String> projectNames = referenceLookupService.projectNames(projectIds);
+        Map<String, String> riskTitles = referenceLookupService.riskTitles(riskIds);
+        
+        List<MitigationDto> dtos = new ArrayList<>(mitigations.size());
+        for (Mitigation mitigation : mitigations) {
+            MitigationDto dto = copyFields(mitigation);
+            
+            // Populate display fields if available
+            if (mitigation.getAssignee() != null) {
+                dto.setAssigneeUsername(usernames.get(mitigation.getAssignee()));
+            }
+            if (mitigation.getCreatedBy() != null) {
+                dto.setCreatedByUsername(usernames.get(mitigation.getCreatedBy()));
+            }
+            if (mitigation.getProjectId() != null) {
+                dto.setProjectName(projectNames.get(mitigation.getProjectId()));
+            }
+            if (mitigation.getRelatedRiskId() != null) {
+                dto.setRelatedRisk(riskTitles.get(mitigation.getRelatedRiskId()));
+            }
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+
+    private MitigationDto copyFields(Mitigation mitigation) {
         MitigationDto dto = new MitigationDto();
         dto.setId(mitigation.getId());
         dto.setTitle(mitigation.getTitle());
@@ -201,28 +349,10 @@ public class MitigationService {
         dto.setActualCost(mitigation.getActualCost());
         dto.setAiGenerated(mitigation.getAiGenerated());
         dto.setEffectiveness(mitigation.getEffectiveness());
-        
-        // Populate username fields if available
-        if (mitigation.getAssignee() != null) {
-            userRepository.findById(mitigation.getAssignee())
-                .ifPresent(user -> dto.setAssigneeUsername(user.getUsername()));
-        }
-        
-        if (mitigation.getCreatedBy() != null) {
-            userRepository.findById(mitigation.getCreatedBy())
-                .ifPresent(user -> dto.setCreatedByUsername(user.getUsername()));
-        }
-        
-        // Populate project name if available
-        if (mitigation.getProjectId() != null) {
-            projectRepository.findById(mitigation.getProjectId())
-                .ifPresent(project -> dto.setProjectName(project.getName()));
-        }
-        
-        // Populate related risk title if available
-        if (mitigation.getRelatedRiskId() != null) {
-            riskRepository.findById(mitigation.getRelatedRiskId())
-                .ifPresent(risk -> dto.setRelatedRisk(risk.getTitle()));
+        if (mitigation.getActions() != null) {
+            dto.setActions(mitigation.getActions().stream()
+                    .map(mitigationActionService::convertToDto)
+                    .collect(Collectors.toList()));
         }
         
         return dto;
@@ -257,6 +387,9 @@ public class MitigationService {
         if (dto.getRelatedRisk() != null) mitigation.setRelatedRiskId(dto.getRelatedRisk());
         if (dto.getProjectId() != null) mitigation.setProjectId(dto.getProjectId());
         if (dto.getProgressPercentage() != null) mitigation.setProgressPercentage(dto.getProgressPercentage());
+        if (dto.getEffectiveness() != null) mitigation.setEffectiveness(dto.getEffectiveness());
+        if (dto.getEstimatedCost() != null) mitigation.setEstimatedCost(dto.getEstimatedCost());
+        if (dto.getActualCost() != null) mitigation.setActualCost(dto.getActualCost());
     }
 
     /**
@@ -294,6 +427,11 @@ public class MitigationService {
                 "MITIGATION"
             );
             
+            // Digest users see this assignment in their weekly email instead
+            if (user.usesWeeklyDigest()) {
+                return;
+            }
+            
             // Send email with professional HTML template
             // Format the due date properly (same as task assignment)
             String formattedDueDate = null;
@@ -320,6 +458,8 @@ public class MitigationService {
             System.out.println("  Description: " + (description.length() > 50 ? description.substring(0, 50) + "..." : description));
             
             emailService.sendMitigationAssignmentEmail(
+                mitigation.getId(),
+                mitigation.getUpdatedAt(),
                 emailAddress,
                 username,
                 title,
@@ -0,0 +1,169 @@
+package dev.doomsday.suitX.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import dev.doomsday.suitX.model.Notification;
+import dev.doomsday.suitX.model.NotificationCounter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Keeps a per-user unread notification count in the notification_counters collection.
+ *
+ * Writes apply $inc to the counter document and cache the returned value, so reading the
+ * badge count is served from memory. Cached values expire shortly after they were written,
+ * since another instance may have changed the counter since. A missing counter is built from
+ * a real count on first read, and a periodic recount corrects drift (e.g. notifications
+ * removed by the TTL index).
+ */
+@Service
+@RequiredArgsConstructor
+public class NotificationCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationCounterService.class);
+
+    // How long another instance's writes can go unseen by this one's badge counts
+    private static final Duration CACHE_TTL = Duration.ofSeconds(30);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final Cache<String, Long> unreadCounts = Caffeine.newBuilder()
+            .expireAfterWrite(CACHE_TTL)
+            .maximumSize(50_000)
+            .build();
+
+    /**
+     * Get a user's unread count, from memory when cached
+     */
+    public long getUnread(String userId) {
+        return unreadCounts.get(userId, this::load);
+    }
+
+    /**
+     * Adjust a user's unread count and return the new value
+     */
+    public long increment(String userId, long delta) {
+        if (delta == 0) {
+            return getUnread(userId);
+        }
+        NotificationCounter previous = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(userId)),
+                new Update().inc("unread", delta).set("updatedAt", LocalDateTime.now()),
+                FindAndModifyOptions.options().upsert(true).returnNew(false),
+                NotificationCounter.class);
+        if (previous == null || previous.getUnread() == null) {
+            // The counter was just created from this delta alone, so build it from a real count
+            return recount(userId);
+        }
+        long unread = previous.getUnread() + delta;
+        if (unread < 0) {
+            // Decremented below zero: the counter was out of step, rebuild it now
+            return recount(userId);
+        }
+        unreadCounts.put(userId, unread);
+        return unread;
+    }
+
+    /**
+     * Adjust many users' unread counts with one bulk write.
+     * Users without a counter document are skipped; theirs is built from a real count on first read.
+     */
+    public void incrementAll(Map<String, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NotificationCounter.class);
+        deltas.forEach((userId, delta) -> bulk.updateOne(new Query(Criteria.where("_id").is(userId)),
+                new Update().inc("unread", delta).set("updatedAt", now)));
+        bulk.execute();
+        deltas.forEach((userId, delta) -> unreadCounts.asMap().computeIfPresent(userId, (id, unread) -> unread + delta));
+    }
+
+    private long load(String userId) {
+        NotificationCounter counter = mongoTemplate.findById(userId, NotificationCounter.class);
+        if (counter != null && counter.getUnread() != null) {
+            return counter.getUnread();
+        }
+        return store(userId, countUnread(userId));
+    }
+
+    private long recount(String userId) {
+        long unread = store(userId, countUnread(userId));
+        unreadCounts.put(userId, unread);
+        return unread;
+    }
+
+    private long countUnread(String userId) {
+        return mongoTemplate.count(
+                new Query(Criteria.where("userId").is(userId).and("isRead").is(false)), Notification.class);
+    }
+
+    private long store(String userId, long unread) {
+        LocalDateTime now = LocalDateTime.now();
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(userId)),
+                new Update().set("unread", unread).set("updatedAt", now).set("reconciledAt", now),
+                NotificationCounter.class);
+        return unread;
+    }
+
+    /**
+     * Recount unread notifications for every user in one aggregation and correct the counters that drifted.
+     *
+     * Counters are read before the recount and each correction only applies if the counter still
+     * holds the value that was read, so increments made meanwhile are not overwritten; such a
+     * counter is left for the next run. The whole memory cache is dropped afterwards, so no
+     * instance keeps serving a stale count until its entry expires.
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.counter-reconcile-ms:900000}",
+               initialDelayString = "${app.notifications.counter-reconcile-ms:900000}")
+    public void reconcile() {
+        List<NotificationCounter> counters = mongoTemplate.findAll(NotificationCounter.class);
+
+        Map<String, Long> actual = new HashMap<>();
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("isRead").is(false)),
+                Aggregation.group("userId").count().as("unread"));
+        for (Document row : mongoTemplate.aggregate(aggregation, Notification.class, Document.class)) {
+            Object userId = row.get("_id");
+            if (userId != null) {
+                actual.put(userId.toString(), row.get("unread", Number.class).longValue());
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, NotificationCounter.class);
+        int drifted = 0;
+        for (NotificationCounter counter : counters) {
+            long expected = actual.getOrDefault(counter.getId(), 0L);
+            if (counter.getUnread() == null || counter.getUnread() != expected) {
+                bulk.updateOne(new Query(Criteria.where("_id").is(counter.getId()).and("unread").is(counter.getUnread())),
+                        new Update().set("unread", expected).set("updatedAt", now).set("reconciledAt", now));
+                drifted++;
+            }
+        }
+
+        long corrected = drifted > 0 ? bulk.execute().getModifiedCount() : 0;
+        unreadCounts.invalidateAll();
+        logger.info("Reconciled {} notification counters: {} drifted, {} corrected", counters.size(), drifted, corrected);
+    }
+}
@@ -0,0 +1,106 @@
+package dev.doomsday.suitX.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import dev.doomsday.suitX.model.Notification;
+import dev.doomsday.suitX.model.Project;
+import dev.doomsday.suitX.model.Risk;
+import dev.doomsday.suitX.model.User;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Notifies everyone on a project about project-wide events
+ * Recipients are resolved once per event with two projection queries (project, then users
+ * with the relevant alert setting on), and the notifications are handed to the sink in batches.
+ */
+@Service
+@RequiredArgsConstructor
+public class NotificationFanoutService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationFanoutService.class);
+
+    private static final Set<String> ALERT_SEVERITIES = Set.of("HIGH", "CRITICAL");
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+    private final NotificationService notificationService;
+
+    /**
+     * Notify the project's owner and members about newly detected HIGH and CRITICAL risks
+     * @param projectId Project the risks belong to
+     * @param risks Newly created risks; lower severities are ignored
+     * @param actorUserId User who triggered the detection, who is not notified
+     * @return Number of notifications created
+     */
+    public int notifyRisksDetected(String projectId, List<Risk> risks, String actorUserId) {
+        List<Risk> alerts = risks.stream()
+                .filter(risk -> risk.getSeverity() != null && ALERT_SEVERITIES.contains(risk.getSeverity().toUpperCase()))
+                .toList();
+        if (alerts.isEmpty()) {
+            return 0;
+        }
+
+        Query projectQuery = new Query(Criteria.where("_id").is(projectId));
+        projectQuery.fields().include("name", "ownerId", "memberIds");
+        Project project = mongoTemplate.findOne(projectQuery, Project.class);
+        if (project == null) {
+            return 0;
+        }
+
+        Set<String> candidates = new LinkedHashSet<>();
+        if (project.getOwnerId() != null) {
+            candidates.add(project.getOwnerId());
+        }
+        if (project.getMemberIds() != null) {
+            candidates.addAll(project.getMemberIds());
+        }
+        candidates.remove(actorUserId);
+        List<String> recipients = withRiskAlertsOn(candidates);
+        if (recipients.isEmpty()) {
+            return 0;
+        }
+
+        List<Notification> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        int created = 0;
+        for (Risk risk : alerts) {
+            for (String userId : recipients) {
+                batch.add(Notification.createRiskDetectedNotification(
+                        userId, risk.getId(), risk.getTitle(), project.getName(), risk.getSeverity().toUpperCase()));
+                if (batch.size() == INSERT_BATCH_SIZE) {
+                    created += notificationService.createAll(batch).size();
+                    batch = new ArrayList<>(INSERT_BATCH_SIZE);
+                }
+            }
+        }
+        created += notificationService.createAll(batch).size();
+
+        logger.info("Sent {} risk alerts for project {} to {} recipients", created, projectId, recipients.size());
+        return created;
+    }
+
+    /**
+     * Keep the active users whose riskAlerts setting is on, in one projection query
+     */
+    private List<String> withRiskAlertsOn(Set<String> userIds) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        Query query = new Query(Criteria.where("_id").in(userIds)
+                .and("settings.notifications.riskAlerts").ne(false)
+                .and("isActive").ne(false));
+        query.fields().include("_id");
+        return mongoTemplate.find(query, User.class).stream()
+                .map(User::getId)
+                .toList();
+    }
+}
@@ -0,0 +1,89 @@
+package dev.doomsday.suitX.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import dev.doomsday.suitX.model.ArchivedNotification;
+import dev.doomsday.suitX.model.Notification;
+
+/**
+ * Moves read notifications out of the hot notifications collection into notifications_archive.
+ *
+ * The hot collection then holds mostly unread and recent notifications, which keeps it and its
+ * compound indexes small. Batches are copied with idempotent upserts before the originals are
+ * deleted, so an interrupted run only repeats work on the next one.
+ */
+@Service
+public class NotificationRetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationRetentionService.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${app.notifications.archive-after-days:30}")
+    private int archiveAfterDays;
+
+    @Value("${app.notifications.archive-batch-size:1000}")
+    private int batchSize;
+
+    public NotificationRetentionService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Archive read notifications created more than archiveAfterDays ago
+     * @return Number of notifications archived
+     */
+    @Scheduled(cron = "${app.notifications.archive-cron:0 15 3 * * *}")
+    public long archiveReadNotifications() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minusDays(archiveAfterDays);
+        long archived = 0;
+
+        List<Notification> batch;
+        do {
+            // Walks read_created_idx in order, so each batch reads only the documents it returns
+            Query query = new Query(Criteria.where("isRead").is(true).and("createdAt").lt(cutoff))
+                    .with(Sort.by(Sort.Direction.ASC, "createdAt"))
+                    .limit(batchSize);
+            query.fields().include("userId", "type", "title", "relatedEntityType", "relatedEntityId",
+                    "priority", "createdAt", "readAt");
+            batch = mongoTemplate.find(query, Notification.class);
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            BulkOperations copy = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ArchivedNotification.class);
+            for (Notification notification : batch) {
+                copy.replaceOne(new Query(Criteria.where("_id").is(notification.getId())),
+                        ArchivedNotification.from(notification, now),
+                        FindAndReplaceOptions.options().upsert());
+            }
+            copy.execute();
+
+            List<String> ids = batch.stream().map(Notification::getId).toList();
+            long deleted = mongoTemplate.remove(new Query(Criteria.where("_id").in(ids)), Notification.class)
+                    .getDeletedCount();
+            archived += deleted;
+            if (deleted == 0) {
+                // Nothing was removed, so the next query would return the same batch
+                break;
+            }
+        } while (batch.size() == batchSize);
+
+        logger.info("Archived {} read notifications older than {} days", archived, archiveAfterDays);
+        return archived;
+    }
+}
@@ -1,16 +1,34 @@
 package dev.doomsday.suitX.service;
 
+import dev.doomsday.suitX.dto.CursorPage;
+import dev.doomsday.suitX.dto.NotificationSummaryDto;
 import dev.doomsday.suitX.model.Notification;
 import dev.doomsday.suitX.model.User;
 import dev.doomsday.suitX.repository.NotificationRepository;
 import dev.doomsday.suitX.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
 import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * Service for managing user notifications
@@ -19,8 +37,21 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class NotificationService {
     
+    public static final int DEFAULT_FEED_SIZE = 20;
+    public static final int MAX_FEED_SIZE = 100;
+    
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
+    private final NotificationStreamService notificationStreamService;
+    private final NotificationCounterService notificationCounterService;
+    private final MongoTemplate mongoTemplate;
+    private final NotificationSink notificationSink;
+    
+    // Usernames never change, so the badge endpoint can skip the user lookup
+    private final Cache<String, String> userIdsByUsername = Caffeine.newBuilder()
+        .expireAfterAccess(Duration.ofHours(1))
+        .maximumSize(50_000)
+        .build();
     
     /**
      * Get all notifications for a user, sorted by creation date (newest first)
@@ -40,12 +71,125 @@ public class NotificationService {
             Sort.by(Sort.Direction.DESC, "createdAt"));
     }
     
+    /**
+     * Get a page of the user's notification feed, newest first
+     * Uses keyset pagination on (createdAt, _id) so deep pages cost the same as the first one
+     * @param username Username of the current user
+     * @param read Optional read state filter (null for all)
+     * @param types Optional notification types to include
+     * @param priority Optional priority filter
+     * @param cursor Opaque cursor from the previous page, or null for the first page
+     * @param limit Page size, capped at MAX_FEED_SIZE
+     * @return Page of compact notifications
+     */
+    public CursorPage<NotificationSummaryDto> getFeed(String username, Boolean read, List<String> types,
+                                                      String priority, String cursor, int limit) {
+        String userId = getUserId(username);
+        int pageSize = Math.min(Math.max(limit, 1), MAX_FEED_SIZE);
+        
+        // Always constrain isRead so the userId + isRead prefix of the index applies
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (read != null) {
+            criteria.and("isRead").is(read);
+        } else {
+            criteria.and("isRead").in(false, true);
+        }
+        if (types != null && !types.isEmpty()) {
+            criteria.and("type").in(types);
+        }
+        if (priority != null) {
+            criteria.and("priority").is(priority);
+        }
+        
+        Query query = new Query(criteria);
+        if (cursor != null) {
+            FeedCursor position = FeedCursor.decode(cursor);
+            query.addCriteria(new Criteria().orOperator(
+                Criteria.where("createdAt").lt(position.createdAt()),
+                Criteria.where("createdAt").is(position.createdAt()).and("_id").lt(position.id())));
+        }
+        query.with(Sort.by(Sort.Direction.DESC, "createdAt", "_id")).limit(pageSize + 1);
+        query.fields().include("type", "title", "message", "relatedEntityType", "relatedEntityId",
+            "actionUrl", "isRead", "priority", "createdAt");
+        
+        // Fetch one extra row to know whether another page exists
+        List<Notification> notifications = mongoTemplate.find(query, Notification.class);
+        boolean hasMore = notifications.size() > pageSize;
+        if (hasMore) {
+            notifications = notifications.subList(0, pageSize);
+        }
+        String nextCursor = null;
+        if (hasMore) {
+            Notification last = notifications.get(notifications.size() - 1);
+            nextCursor = new FeedCursor(last.getCreatedAt(), new ObjectId(last.getId())).encode();
+        }
+        
+        List<NotificationSummaryDto> items = notifications.stream()
+            .map(this::toSummary)
+            .collect(Collectors.toList());
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+    
+    /**
+     * Position in the feed: createdAt and _id of the last notification on a page
+     */
+    private record FeedCursor(LocalDateTime createdAt, ObjectId id) {
+        
+        String encode() {
+            String raw = createdAt + "|" + id.toHexString();
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+        
+        static FeedCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.indexOf('|');
+                String id = raw.substring(separator + 1);
+                if (separator < 0 || !ObjectId.isValid(id)) {
+                    throw new IllegalArgumentException("Invalid cursor: " + cursor);
+                }
+                return new FeedCursor(LocalDateTime.parse(raw.substring(0, separator)), new ObjectId(id));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+        }
+    }
+    
+    private NotificationSummaryDto toSummary(Notification notification) {
+        NotificationSummaryDto dto = new NotificationSummaryDto();
+        dto.setId(notification.getId());
+        dto.setType(notification.getType());
+        dto.setTitle(notification.getTitle());
+        dto.setMessage(notification.getMessage());
+        dto.setRelatedEntityType(notification.getRelatedEntityType());
+        dto.setRelatedEntityId(notification.getRelatedEntityId());
+        dto.setActionUrl(notification.getActionUrl());
+        dto.setIsRead(notification.getIsRead());
+        dto.setPriority(notification.getPriority());
+        dto.setCreatedAt(notification.getCreatedAt());
+        return dto;
+    }
+    
     /**
      * Get count of unread notifications
      */
     public long getUnreadCount(String username) {
         String userId = getUserId(username);
-        return notificationRepository.countByUserIdAndIsRead(userId, false);
+        return notificationCounterService.getUnread(userId);
+    }
+    
+    /**
+     * Open a live notification stream for a user. A fresh connection starts with the
+     * current unread count; a resumed one replays what it missed instead.
+     */
+    public SseEmitter openStream(String username, String lastEventId) {
+        String userId = getUserId(username);
+        SseEmitter emitter = notificationStreamService.subscribe(userId, lastEventId);
+        if (lastEventId == null) {
+            notificationStreamService.publishUnreadCount(userId,
+                notificationCounterService.getUnread(userId));
+        }
+        return emitter;
     }
     
     /**
@@ -67,21 +211,35 @@ public class NotificationService {
             throw new RuntimeException("Unauthorized: Notification does not belong to this user");
         }
         
-        notification.markAsRead();
-        return notificationRepository.save(notification);
+        if (notification.isUnread()) {
+            notification.markAsRead();
+            // Only the request that actually flips the flag adjusts the counter
+            UpdateResult result = mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(notificationId).and("isRead").is(false)),
+                new Update().set("isRead", true).set("readAt", notification.getReadAt()),
+                Notification.class);
+            if (result.getModifiedCount() > 0) {
+                publishUnreadCount(userId, notificationCounterService.increment(userId, -1));
+            }
+        }
+        return notification;
     }
     
     /**
-     * Mark all notifications as read for a user
+     * Mark all notifications as read for a user with a single multi-document update
+     * @return Number of notifications marked as read
      */
     @Transactional
-    public void markAllAsRead(String username) {
+    public long markAllAsRead(String username) {
         String userId = getUserId(username);
-        List<Notification> unreadNotifications = notificationRepository.findByUserIdAndIsRead(
-            userId, false, Sort.unsorted());
+        UpdateResult result = mongoTemplate.updateMulti(
+            new Query(Criteria.where("userId").is(userId).and("isRead").is(false)),
+            new Update().set("isRead", true).set("readAt", LocalDateTime.now()),
+            Notification.class);
         
-        unreadNotifications.forEach(Notification::markAsRead);
-        notificationRepository.saveAll(unreadNotifications);
+        long updated = result.getModifiedCount();
+        publishUnreadCount(userId, notificationCounterService.increment(userId, -updated));
+        return updated;
     }
     
     /**
@@ -103,30 +261,49 @@ public class NotificationService {
             throw new RuntimeException("Unauthorized: Notification does not belong to this user");
         }
         
-        notificationRepository.deleteById(notificationId);
+        DeleteResult result = mongoTemplate.remove(
+            new Query(Criteria.where("_id").is(notificationId)), Notification.class);
+        if (result.getDeletedCount() > 0 && notification.isUnread()) {
+            publishUnreadCount(userId, notificationCounterService.increment(userId, -1));
+        }
     }
     
     /**
-     * Delete all read notifications for a user
+     * Delete all read notifications for a user with a single deleteMany
+     * @return Number of notifications deleted
      */
     @Transactional
-    public void deleteReadNotifications(String username) {
+    public long deleteReadNotifications(String username) {
         String userId = getUserId(username);
-        List<Notification> readNotifications = notificationRepository.findByUserIdAndIsRead(
-            userId, true, Sort.unsorted());
-        
-        notificationRepository.deleteAll(readNotifications);
+        // userId + isRead is the prefix of user_read_created_id_idx
+        DeleteResult result = mongoTemplate.remove(
+            new Query(Criteria.where("userId").is(userId).and("isRead").is(true)),
+            Notification.class);
+        return result.getDeletedCount();
     }
     
     /**
      * Helper method to get userId from username
      */
     private String getUserId(String username) {
+        String cached = userIdsByUsername.getIfPresent(username);
+        if (cached != null) {
+            return cached;
+        }
         Optional<User> userOpt = userRepository.findByUsername(username);
         if (userOpt.isEmpty()) {
             throw new RuntimeException("User not found: " + username);
         }
-        return userOpt.get().getId();
+        String userId = userOpt.get().getId();
+        userIdsByUsername.put(username, userId);
+        return userId;
+    }
+    
+    /**
+     * Push an unread count to the user's open streams
+     */
+    private void publishUnreadCount(String userId, long count) {
+        notificationStreamService.publishUnreadCount(userId, count);
     }
     
     /**
@@ -149,10 +326,39 @@ public class NotificationService {
         notification.setMessage(message);
         notification.setRelatedEntityId(relatedEntityId);
         notification.setRelatedEntityType(relatedEntityType);
-        notification.setIsRead(false);
-        notification.setCreatedAt(java.time.LocalDateTime.now());
-        notification.setExpiresAt(java.time.LocalDateTime.now().plusDays(30));
+        return create(notification);
+    }
+    
+    /**
+     * Create a notification built elsewhere, e.g. by one of the Notification factories
+     * @return The notification, with its id assigned
+     */
+    public Notification create(Notification notification) {
+        return createAll(List.of(notification)).get(0);
+    }
+    
+    /**
+     * Create many notifications. They are written through the NotificationSink,
+     * which batches them with other pending notifications into bulk inserts.
+     * @param notifications Notifications to insert, e.g. one per recipient of an event
+     * @return The notifications, with their ids assigned
+     */
+    public List<Notification> createAll(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return List.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Notification notification : notifications) {
+            notification.setIsRead(false);
+            if (notification.getCreatedAt() == null) {
+                notification.setCreatedAt(now);
+            }
+            if (notification.getExpiresAt() == null) {
+                notification.setExpiresAt(Notification.defaultExpiry());
+            }
+        }
         
-        return notificationRepository.save(notification);
+        notificationSink.submit(notifications);
+        return notifications;
     }
 }
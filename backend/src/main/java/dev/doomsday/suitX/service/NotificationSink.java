@@ -0,0 +1,208 @@
+package dev.doomsday.suitX.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.bulk.BulkWriteError;
+
+import dev.doomsday.suitX.model.Notification;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind buffer for new notifications.
+ *
+ * Callers hand notifications over and return immediately; a background thread writes them as
+ * unordered bulk inserts once flush-size are waiting or every flush-interval, whichever comes
+ * first. Ids are assigned on submit so callers can still reference the notification. When the
+ * buffer is full, or after shutdown has begun, notifications are written on the caller's thread.
+ * Shutdown drains whatever is still buffered.
+ */
+@Component
+public class NotificationSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationSink.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final NotificationCounterService notificationCounterService;
+    private final NotificationStreamService notificationStreamService;
+
+    private final int flushSize;
+    private final long flushIntervalMs;
+    private final BlockingQueue<Notification> queue;
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "notification-sink");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Timer flushTimer;
+    private final Counter writtenCounter;
+    private final Counter fallbackCounter;
+    private final Counter failedCounter;
+
+    private volatile boolean accepting = true;
+
+    public NotificationSink(MongoTemplate mongoTemplate,
+                            NotificationCounterService notificationCounterService,
+                            NotificationStreamService notificationStreamService,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.notifications.sink.flush-size:100}") int flushSize,
+                            @Value("${app.notifications.sink.flush-interval-ms:250}") long flushIntervalMs,
+                            @Value("${app.notifications.sink.capacity:10000}") int capacity) {
+        this.mongoTemplate = mongoTemplate;
+        this.notificationCounterService = notificationCounterService;
+        this.notificationStreamService = notificationStreamService;
+        this.flushSize = flushSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.queue = new LinkedBlockingQueue<>(capacity);
+
+        Gauge.builder("notifications.sink.queue.depth", queue, BlockingQueue::size)
+                .description("Notifications waiting to be written")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("notifications.sink.flush")
+                .description("Time to write one batch of notifications")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("notifications.sink.written").register(meterRegistry);
+        this.fallbackCounter = Counter.builder("notifications.sink.fallback")
+                .description("Notifications written on the caller's thread because the buffer was full")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("notifications.sink.failed").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Buffer notifications for writing. Ids are assigned here.
+     */
+    public void submit(List<Notification> notifications) {
+        List<Notification> overflow = new ArrayList<>();
+        for (Notification notification : notifications) {
+            if (notification.getId() == null) {
+                notification.setId(new ObjectId().toHexString());
+            }
+            if (!accepting || !queue.offer(notification)) {
+                overflow.add(notification);
+            }
+        }
+
+        if (!overflow.isEmpty()) {
+            fallbackCounter.increment(overflow.size());
+            write(overflow);
+        }
+        if (accepting && queue.size() >= flushSize) {
+            try {
+                flusher.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                // Shutting down; the drain picks these up
+            }
+        }
+    }
+
+    private void flush() {
+        try {
+            List<Notification> batch = new ArrayList<>(flushSize);
+            while (queue.drainTo(batch, flushSize) > 0) {
+                write(batch);
+                batch = new ArrayList<>(flushSize);
+            }
+        } catch (Exception e) {
+            // Keep the scheduled task alive
+            logger.error("Notification flush failed", e);
+        }
+    }
+
+    private void write(List<Notification> batch) {
+        Set<Integer> failed = new HashSet<>();
+        Timer.Sample sample = Timer.start();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Notification.class)
+                    .insert(batch)
+                    .execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                failed.add(error.getIndex());
+            }
+            logger.error("Failed to write {} of {} notifications: {}", failed.size(), batch.size(), e.getMessage());
+        } catch (Exception e) {
+            for (int i = 0; i < batch.size(); i++) {
+                failed.add(i);
+            }
+            logger.error("Failed to write {} notifications: {}", batch.size(), e.getMessage());
+        } finally {
+            sample.stop(flushTimer);
+        }
+
+        List<Notification> written = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            if (!failed.contains(i)) {
+                written.add(batch.get(i));
+            }
+        }
+        failedCounter.increment(failed.size());
+        writtenCounter.increment(written.size());
+        if (!written.isEmpty()) {
+            afterWrite(written);
+        }
+    }
+
+    /**
+     * Update unread counters and notify open streams once the notifications exist
+     */
+    private void afterWrite(List<Notification> written) {
+        Map<String, Long> perUser = written.stream()
+                .collect(Collectors.groupingBy(Notification::getUserId, Collectors.counting()));
+        try {
+            notificationCounterService.incrementAll(perUser);
+        } catch (Exception e) {
+            // The periodic recount corrects the counters
+            logger.warn("Failed to update unread counters: {}", e.getMessage());
+        }
+
+        for (Notification notification : written) {
+            notificationStreamService.publishNotification(notification);
+        }
+        perUser.keySet().stream()
+                .filter(notificationStreamService::isListening)
+                .forEach(userId -> notificationStreamService.publishUnreadCount(
+                        userId, notificationCounterService.getUnread(userId)));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        accepting = false;
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        // Drain on this thread; anything submitted from now on is written directly
+        int remaining = queue.size();
+        flush();
+        logger.info("Notification sink drained {} buffered notifications", remaining);
+    }
+}
@@ -0,0 +1,303 @@
+package dev.doomsday.suitX.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import dev.doomsday.suitX.model.Notification;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Pushes notification events to connected clients over Server-Sent Events.
+ *
+ * Each user may hold a few open streams (one per tab); opening more closes the oldest.
+ * Recent events are kept in a small per-user buffer so a client reconnecting with
+ * Last-Event-ID gets what it missed instead of refetching everything.
+ *
+ * Every stream has its own queue of pending events, drained in order by a small sender pool,
+ * so a slow or half-open client only holds up its own stream and never the request that
+ * created the notification. A stream that falls MAX_PENDING_EVENTS behind, or whose write has
+ * been blocked for longer than SEND_TIMEOUT_MS, is dropped; the client reconnects and resumes
+ * from its last event.
+ */
+@Service
+public class NotificationStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationStreamService.class);
+
+    public static final String EVENT_NOTIFICATION = "notification";
+    public static final String EVENT_UNREAD_COUNT = "unread-count";
+    public static final String EVENT_RESYNC = "resync";
+
+    private static final int MAX_CONNECTIONS_PER_USER = 5;
+    private static final int REPLAY_BUFFER_SIZE = 50;
+    private static final long EMITTER_TIMEOUT_MS = Duration.ofMinutes(30).toMillis();
+
+    private static final int SENDER_THREADS = 4;
+    private static final int MAX_PENDING_EVENTS = 100;
+    private static final long SEND_TIMEOUT_MS = Duration.ofSeconds(10).toMillis();
+
+    private static final StreamEvent HEARTBEAT = new StreamEvent(0, null, null);
+
+    private final Map<String, List<Connection>> connections = new ConcurrentHashMap<>();
+
+    // Replay buffers outlive a connection briefly so reconnecting clients can resume
+    private final Cache<String, Deque<StreamEvent>> replayBuffers = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .maximumSize(10_000)
+            .build();
+
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis());
+
+    // At most one drain task per connection is queued, so the queue is bounded by the number of streams
+    private final ThreadPoolExecutor sender;
+
+    private record StreamEvent(long id, String name, Object data) {
+    }
+
+    /**
+     * One open stream and the events waiting to be written to it
+     */
+    private static final class Connection {
+        final String userId;
+        final SseEmitter emitter;
+        final Queue<StreamEvent> pending = new ConcurrentLinkedQueue<>();
+        final AtomicInteger pendingCount = new AtomicInteger();
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile long sendingSince; // nanoTime the current write started, 0 when idle
+        volatile boolean closed;
+
+        Connection(String userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+    }
+
+    public NotificationStreamService() {
+        AtomicInteger threads = new AtomicInteger();
+        this.sender = new ThreadPoolExecutor(SENDER_THREADS, SENDER_THREADS, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "notification-stream-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Open a stream for a user, replaying buffered events newer than lastEventId
+     */
+    public SseEmitter subscribe(String userId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        Connection connection = new Connection(userId, emitter);
+        // Enforce the per-user cap by closing the oldest stream
+        List<Connection> existing = List.copyOf(connections.getOrDefault(userId, List.of()));
+        for (int i = 0; i <= existing.size() - MAX_CONNECTIONS_PER_USER; i++) {
+            Connection oldest = existing.get(i);
+            close(oldest, oldest.sendingSince == 0);
+        }
+
+        emitter.onCompletion(() -> close(connection, false));
+        emitter.onTimeout(() -> close(connection, true));
+        emitter.onError(error -> close(connection, false));
+
+        // Register the buffer so events are kept for this user from now on. Holding its lock while
+        // queueing the replay and adding the connection means no event is missed or sent twice.
+        Deque<StreamEvent> buffer = replayBuffers.get(userId, id -> new ArrayDeque<>());
+        synchronized (buffer) {
+            for (StreamEvent event : missedEvents(buffer, lastEventId)) {
+                enqueue(connection, event);
+            }
+            connections.compute(userId, (id, userConnections) -> {
+                List<Connection> list = userConnections != null ? userConnections : new CopyOnWriteArrayList<>();
+                list.add(connection);
+                return list;
+            });
+        }
+        return emitter;
+    }
+
+    /**
+     * Push a newly created notification to the user's open streams
+     */
+    public void publishNotification(Notification notification) {
+        publish(notification.getUserId(), EVENT_NOTIFICATION, notification);
+    }
+
+    /**
+     * Push the user's current unread count to the user's open streams
+     */
+    public void publishUnreadCount(String userId, long count) {
+        publish(userId, EVENT_UNREAD_COUNT, Map.of("count", count));
+    }
+
+    /**
+     * Whether anyone is listening for this user, so callers can skip work for offline users
+     */
+    public boolean isListening(String userId) {
+        List<Connection> userConnections = connections.get(userId);
+        return (userConnections != null && !userConnections.isEmpty())
+                || replayBuffers.getIfPresent(userId) != null;
+    }
+
+    private void publish(String userId, String name, Object data) {
+        if (userId == null || !isListening(userId)) {
+            return;
+        }
+        StreamEvent event = new StreamEvent(sequence.incrementAndGet(), name, data);
+        Deque<StreamEvent> buffer = replayBuffers.get(userId, id -> new ArrayDeque<>());
+        synchronized (buffer) {
+            buffer.addLast(event);
+            while (buffer.size() > REPLAY_BUFFER_SIZE) {
+                buffer.removeFirst();
+            }
+            for (Connection connection : connections.getOrDefault(userId, List.of())) {
+                enqueue(connection, event);
+            }
+        }
+    }
+
+    /**
+     * Buffered events after lastEventId, led by a resync event if some were already dropped.
+     * Caller holds the buffer's lock.
+     */
+    private List<StreamEvent> missedEvents(Deque<StreamEvent> buffer, String lastEventId) {
+        if (lastEventId == null) {
+            return List.of();
+        }
+        long lastId;
+        try {
+            lastId = Long.parseLong(lastEventId);
+        } catch (NumberFormatException e) {
+            return List.of();
+        }
+
+        List<StreamEvent> missed = new ArrayList<>();
+        if (buffer.isEmpty() || buffer.peekFirst().id() > lastId + 1) {
+            // Events were dropped from the buffer; the client must reload its list
+            missed.add(new StreamEvent(sequence.incrementAndGet(), EVENT_RESYNC, Map.of()));
+        }
+        for (StreamEvent event : buffer) {
+            if (event.id() > lastId) {
+                missed.add(event);
+            }
+        }
+        return missed;
+    }
+
+    /**
+     * Keep idle streams open through proxies, and drop streams whose writes have stalled
+     */
+    @Scheduled(fixedRate = 25_000)
+    public void sendHeartbeats() {
+        long now = System.nanoTime();
+        connections.values().forEach(userConnections -> userConnections.forEach(connection -> {
+            long since = connection.sendingSince;
+            if (since != 0 && now - since > TimeUnit.MILLISECONDS.toNanos(SEND_TIMEOUT_MS)) {
+                logger.debug("Dropping stalled notification stream for user {}", connection.userId);
+                // The blocked write still holds the emitter; it fails or times out on its own
+                close(connection, false);
+            } else {
+                enqueue(connection, HEARTBEAT);
+            }
+        }));
+    }
+
+    private void enqueue(Connection connection, StreamEvent event) {
+        if (connection.closed) {
+            return;
+        }
+        if (connection.pendingCount.incrementAndGet() > MAX_PENDING_EVENTS) {
+            logger.debug("Dropping notification stream for user {}: client is not reading", connection.userId);
+            close(connection, connection.sendingSince == 0);
+            return;
+        }
+        connection.pending.add(event);
+        scheduleDrain(connection);
+    }
+
+    private void scheduleDrain(Connection connection) {
+        if (connection.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(connection));
+        }
+    }
+
+    private void drain(Connection connection) {
+        try {
+            StreamEvent event;
+            while (!connection.closed && (event = connection.pending.poll()) != null) {
+                connection.pendingCount.decrementAndGet();
+                connection.sendingSince = System.nanoTime();
+                try {
+                    write(connection.emitter, event);
+                } catch (IOException | IllegalStateException e) {
+                    close(connection, false);
+                } finally {
+                    connection.sendingSince = 0;
+                }
+            }
+        } finally {
+            connection.draining.set(false);
+            // An event may have been queued after the last poll but before the flag was cleared
+            if (!connection.closed && !connection.pending.isEmpty()) {
+                scheduleDrain(connection);
+            }
+        }
+    }
+
+    private void write(SseEmitter emitter, StreamEvent event) throws IOException {
+        if (event == HEARTBEAT) {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        } else {
+            emitter.send(SseEmitter.event()
+                    .id(Long.toString(event.id()))
+                    .name(event.name())
+                    .data(event.data()));
+        }
+    }
+
+    /**
+     * Stop sending to a stream, completing its emitter only when no write could be blocked on it
+     */
+    private void close(Connection connection, boolean complete) {
+        connection.closed = true;
+        connection.pending.clear();
+        connections.computeIfPresent(connection.userId, (id, userConnections) -> {
+            userConnections.remove(connection);
+            return userConnections.isEmpty() ? null : userConnections;
+        });
+        if (complete) {
+            connection.emitter.complete();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connections.values().forEach(userConnections -> userConnections.forEach(connection -> connection.emitter.complete()));
+        connections.clear();
+        sender.shutdownNow();
+        logger.info("Closed notification streams");
+    }
+}
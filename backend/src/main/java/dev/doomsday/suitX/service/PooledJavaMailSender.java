@@ -0,0 +1,197 @@
+package dev.doomsday.suitX.service;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * JavaMailSender that keeps a small pool of connected, authenticated SMTP transports.
+ *
+ * The default sender opens a new connection (STARTTLS handshake and AUTH) for every send. Here a
+ * connection is returned to the pool after use and closed once it has sent max-messages-per-connection
+ * messages or has been idle for longer than idle-timeout. If a reused connection fails, the message
+ * is retried once on a fresh connection, since the server may have dropped it.
+ */
+public class PooledJavaMailSender extends JavaMailSenderImpl implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(PooledJavaMailSender.class);
+
+    private final int maxMessagesPerConnection;
+    private final long idleTimeoutMs;
+    private final Semaphore permits;
+    private final BlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+
+    private final Counter openedCounter;
+    private final Counter reconnectCounter;
+    private final Counter freshSendCounter;
+    private final Counter reusedSendCounter;
+
+    private static final class PooledTransport {
+        private final Transport transport;
+        private int sent;
+        private long lastUsed = System.currentTimeMillis();
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+    }
+
+    public PooledJavaMailSender(MeterRegistry meterRegistry, int poolSize, int maxMessagesPerConnection, long idleTimeoutMs) {
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.permits = new Semaphore(poolSize, true);
+
+        Gauge.builder("email.smtp.connections.idle", idle, BlockingDeque::size)
+                .description("Open SMTP connections waiting in the pool")
+                .register(meterRegistry);
+        this.openedCounter = Counter.builder("email.smtp.connections.opened")
+                .description("SMTP connections opened (each costs a TLS handshake and AUTH)")
+                .register(meterRegistry);
+        this.reconnectCounter = Counter.builder("email.smtp.reconnects")
+                .description("Sends retried on a new connection after a pooled one failed")
+                .register(meterRegistry);
+        this.freshSendCounter = Counter.builder("email.smtp.messages").tag("connection", "new").register(meterRegistry);
+        this.reusedSendCounter = Counter.builder("email.smtp.messages").tag("connection", "reused").register(meterRegistry);
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while waiting for an SMTP connection", e);
+        }
+
+        PooledTransport connection = null;
+        try {
+            for (int i = 0; i < mimeMessages.length; i++) {
+                MimeMessage message = mimeMessages[i];
+                try {
+                    prepare(message);
+                    connection = send(connection, message);
+                } catch (MessagingException e) {
+                    // send() closed the connection it failed on, so the next message needs another one
+                    connection = null;
+                    Object original = originalMessages != null ? originalMessages[i] : message;
+                    failedMessages.put(original, e);
+                }
+            }
+        } finally {
+            if (connection != null) {
+                connection.lastUsed = System.currentTimeMillis();
+                idle.offerFirst(connection);
+            }
+            permits.release();
+        }
+
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    /**
+     * Same header handling as JavaMailSenderImpl: keep an explicit Message-ID across saveChanges()
+     */
+    private void prepare(MimeMessage message) throws MessagingException {
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        String messageId = message.getMessageID();
+        message.saveChanges();
+        if (messageId != null) {
+            message.setHeader("Message-ID", messageId);
+        }
+    }
+
+    /**
+     * Send on the given connection (or a pooled/new one), returning the connection to keep using,
+     * or null if it was closed
+     */
+    private PooledTransport send(PooledTransport connection, MimeMessage message) throws MessagingException {
+        if (connection == null) {
+            connection = borrow();
+        }
+        boolean reused = connection.sent > 0;
+        try {
+            connection.transport.sendMessage(message, message.getAllRecipients());
+        } catch (MessagingException e) {
+            close(connection);
+            // A rejected recipient is not a connection problem, and a new connection just failed anyway
+            if (!reused || e instanceof SendFailedException) {
+                throw e;
+            }
+            reconnectCounter.increment();
+            logger.debug("Pooled SMTP connection failed after {} messages, reconnecting: {}", connection.sent, e.getMessage());
+            connection = open();
+            reused = false;
+            try {
+                connection.transport.sendMessage(message, message.getAllRecipients());
+            } catch (MessagingException retryFailure) {
+                close(connection);
+                throw retryFailure;
+            }
+        }
+
+        connection.sent++;
+        (reused ? reusedSendCounter : freshSendCounter).increment();
+        if (connection.sent >= maxMessagesPerConnection) {
+            close(connection);
+            return null;
+        }
+        return connection;
+    }
+
+    private PooledTransport borrow() throws MessagingException {
+        PooledTransport connection;
+        while ((connection = idle.pollFirst()) != null) {
+            boolean expired = System.currentTimeMillis() - connection.lastUsed > idleTimeoutMs;
+            if (!expired && connection.transport.isConnected()) {
+                return connection;
+            }
+            close(connection);
+        }
+        return open();
+    }
+
+    private PooledTransport open() throws MessagingException {
+        Transport transport = connectTransport();
+        openedCounter.increment();
+        return new PooledTransport(transport);
+    }
+
+    private void close(PooledTransport connection) {
+        try {
+            connection.transport.close();
+        } catch (MessagingException e) {
+            logger.debug("Error closing SMTP connection: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        PooledTransport connection;
+        while ((connection = idle.pollFirst()) != null) {
+            close(connection);
+        }
+    }
+}
@@ -195,6 +195,7 @@ public class ProjectInvitationService {
      */
     private void sendInvitationEmail(ProjectInvitation invitation, Project project, User user) {
         emailService.sendProjectInvitationEmail(
+            invitation.getId(),
             user.getEmail(),
             user.getUsername(),
             project.getName(),
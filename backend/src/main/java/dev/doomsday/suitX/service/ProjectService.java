@@ -59,6 +59,24 @@ public class ProjectService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Get the ids of the projects a user can access, without loading the projects
+     */
+    public List<String> getAccessibleProjectIds(String username) {
+        if (username == null) {
+            return List.of();
+        }
+        
+        Optional<User> userOpt = userRepository.findByUsername(username);
+        if (userOpt.isEmpty()) {
+            return List.of();
+        }
+        
+        return projectRepository.findAccessibleProjectIds(username, userOpt.get().getId()).stream()
+                .map(Project::getId)
+                .collect(Collectors.toList());
+    }
+    
     public boolean canUserAccessProject(String projectId, String username) {
         if (username == null) {
             return false;
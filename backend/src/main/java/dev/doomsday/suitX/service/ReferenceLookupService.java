@@ -0,0 +1,67 @@
+package dev.doomsday.suitX.service;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import dev.doomsday.suitX.model.Project;
+import dev.doomsday.suitX.model.Risk;
+import dev.doomsday.suitX.model.User;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Resolves display fields for referenced documents in bulk
+ * Each method runs one _id $in query that loads only the display field,
+ * so enriching a list of DTOs costs a fixed number of queries regardless of its size
+ */
+@Service
+@RequiredArgsConstructor
+public class ReferenceLookupService {
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Map user ids to usernames
+     */
+    public Map<String, String> usernames(Collection<String> userIds) {
+        return lookup(userIds, User.class, "username", User::getId, User::getUsername);
+    }
+
+    /**
+     * Map project ids to project names
+     */
+    public Map<String, String> projectNames(Collection<String> projectIds) {
+        return lookup(projectIds, Project.class, "name", Project::getId, Project::getName);
+    }
+
+    /**
+     * Map risk ids to risk titles
+     */
+    public Map<String, String> riskTitles(Collection<String> riskIds) {
+        return lookup(riskIds, Risk.class, "title", Risk::getId, Risk::getTitle);
+    }
+
+    private <T> Map<String, String> lookup(Collection<String> ids, Class<T> type, String field,
+                                           Function<T, String> idOf, Function<T, String> valueOf) {
+        Set<String> distinctIds = ids.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (distinctIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Query query = new Query(Criteria.where("_id").in(distinctIds));
+        query.fields().include(field);
+        return mongoTemplate.find(query, type).stream()
+                .filter(doc -> valueOf.apply(doc) != null)
+                .collect(Collectors.toMap(idOf, valueOf, (a, b) -> a));
+    }
+}
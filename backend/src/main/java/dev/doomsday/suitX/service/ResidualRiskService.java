@@ -0,0 +1,107 @@
+package dev.doomsday.suitX.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import dev.doomsday.suitX.model.Mitigation;
+import dev.doomsday.suitX.model.Risk;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Keeps Risk.residualScore in step with the risk's mitigations.
+ *
+ * residualScore = riskScore × Π (1 − progress/100 × effectivenessWeight)
+ * over the mitigations whose relatedRiskId is the risk. Cancelled mitigations reduce nothing.
+ * Only the risk touched by a mitigation change is recomputed, so portfolio views can sort
+ * and filter on the stored value without joining mitigations.
+ */
+@Service
+@RequiredArgsConstructor
+public class ResidualRiskService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResidualRiskService.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Recompute the residual score of a single risk from its mitigations
+     */
+    public void recompute(String riskId) {
+        if (riskId == null) {
+            return;
+        }
+
+        Query mitigations = new Query(Criteria.where("relatedRiskId").is(riskId));
+        mitigations.fields().include("status", "progressPercentage", "effectiveness");
+        double factor = residualFactor(mongoTemplate.find(mitigations, Mitigation.class));
+
+        // Multiply against the stored riskScore in the update itself, so the risk is never read
+        Date now = Date.from(LocalDateTime.now().atZone(ZoneId.systemDefault()).toInstant());
+        AggregationUpdate update = AggregationUpdate.from(List.of(context -> new Document("$set",
+                new Document("residualScore", new Document("$multiply", List.of("$riskScore", factor)))
+                        .append("residualUpdatedAt", new Document("$literal", now)))));
+
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(riskId)), update, Risk.class);
+    }
+
+    /**
+     * Compute residual scores for risks that do not have one yet. Safe to run on every startup.
+     */
+    public void backfillMissingScores() {
+        Query missing = new Query(Criteria.where("residualScore").exists(false));
+        missing.fields().include("_id");
+
+        int updated = 0;
+        for (Risk risk : mongoTemplate.find(missing, Risk.class)) {
+            recompute(risk.getId());
+            updated++;
+        }
+        if (updated > 0) {
+            logger.info("Computed residual score for {} risks", updated);
+        }
+    }
+
+    /**
+     * Fraction of the inherent risk left after the given mitigations
+     */
+    double residualFactor(List<Mitigation> mitigations) {
+        double factor = 1.0;
+        for (Mitigation mitigation : mitigations) {
+            if ("CANCELLED".equals(mitigation.getStatus())) {
+                continue;
+            }
+            double progress = "COMPLETED".equals(mitigation.getStatus())
+                    ? 100.0
+                    : clamp(mitigation.getProgressPercentage() != null ? mitigation.getProgressPercentage() : 0.0);
+            factor *= 1.0 - (progress / 100.0) * effectivenessWeight(mitigation.getEffectiveness());
+        }
+        return factor;
+    }
+
+    private double effectivenessWeight(String effectiveness) {
+        if (effectiveness == null) {
+            return 0.5;
+        }
+        return switch (effectiveness) {
+            case "HIGH" -> 0.8;
+            case "MEDIUM" -> 0.5;
+            case "LOW" -> 0.25;
+            default -> 0.5; // NOT_ASSESSED
+        };
+    }
+
+    private double clamp(double progress) {
+        return Math.max(0.0, Math.min(100.0, progress));
+    }
+}
@@ -3,9 +3,17 @@ package dev.doomsday.suitX.service;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
 import dev.doomsday.suitX.dto.AIAnalysisResponse;
@@ -27,12 +35,21 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class RiskService {
 
+    private static final Logger logger = LoggerFactory.getLogger(RiskService.class);
+
     private final RiskRepository riskRepository;
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
     private final MitigationRepository mitigationRepository;
     private final GeminiAIService geminiAIService;
     private final ProjectService projectService;
+    private final ResidualRiskService residualRiskService;
+    private final CostRollupService costRollupService;
+    private final ReferenceLookupService referenceLookupService;
+    private final NotificationFanoutService notificationFanoutService;
+    private final MongoTemplate mongoTemplate;
+
+    public static final int MAX_EXPOSURE_LIMIT = 100;
 
     public List<RiskDto> getAllRisks() {
         return riskRepository.findAll().stream()
@@ -80,6 +97,7 @@ public class RiskService {
         risk.setCreatedAt(LocalDateTime.now());
         risk.setUpdatedAt(LocalDateTime.now());
         risk.setStatus("ACTIVE"); // Default status
+        risk.setResidualScore(risk.getRiskScore()); // No mitigations yet
         Risk savedRisk = riskRepository.save(risk);
         return convertToDto(savedRisk);
     }
@@ -91,7 +109,10 @@ public class RiskService {
             updateRiskFields(risk, riskDto);
             risk.setUpdatedAt(LocalDateTime.now());
             Risk savedRisk = riskRepository.save(risk);
-            return convertToDto(savedRisk);
+            
+            // riskScore may have changed, so the residual score has to follow
+            residualRiskService.recompute(savedRisk.getId());
+            return riskRepository.findById(id).map(this::convertToDto).orElse(convertToDto(savedRisk));
         }
         throw new RuntimeException("Risk not found with id: " + id);
     }
@@ -138,9 +159,13 @@ public class RiskService {
     }
 
     /**
-     * Analyze a project and automatically generate risks
+     * Analyze a project and automatically generate risks, reporting each stage to progress.
+     * The risks are stamped with analysisJobId; if that job already saved risks (it is being run
+     * again after a crash or a lost claim), those are returned instead of analysing again.
+     * @throws RuntimeException if the AI analysis failed
      */
-    public List<RiskDto> analyzeAndGenerateRisks(String projectId, String userId) {
+    public List<RiskDto> analyzeAndGenerateRisks(String projectId, String userId, String analysisJobId,
+                                                 Consumer<String> progress) {
         // Get project
         Optional<Project> projectOpt = projectRepository.findById(projectId);
         if (projectOpt.isEmpty()) {
@@ -149,13 +174,27 @@ public class RiskService {
         
         Project project = projectOpt.get();
         
+        List<Risk> alreadySaved = mongoTemplate.find(new Query(Criteria.where("projectId").is(projectId)
+                .and("analysisJobId").is(analysisJobId)), Risk.class);
+        if (!alreadySaved.isEmpty()) {
+            return alreadySaved.stream()
+                    .map(this::convertToDto)
+                    .collect(Collectors.toList());
+        }
+        
         // Use AI to analyze the project
+        progress.accept("Analyzing project with AI");
         AIAnalysisResponse aiResponse = geminiAIService.analyzeExistingProject(project);
+        if ("ERROR".equals(aiResponse.getStatus())) {
+            throw new RuntimeException("AI analysis failed: " + analysisError(aiResponse));
+        }
         
         // Save the AI-generated risks
+        progress.accept("Saving identified risks");
         List<Risk> savedRisks = saveAIGeneratedRisks(
             projectId, 
             userId, 
+            analysisJobId,
             aiResponse.getIdentifiedRisks(), 
             aiResponse.getSuggestedMitigations()
         );
@@ -166,6 +205,45 @@ public class RiskService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Get the open risks of the user's projects with the highest residual exposure first
+     * Resolved, ignored and accepted risks are left out: none of them is exposure still being worked on.
+     * Served from the project_residual_idx index; mitigations are not read
+     * @param username Username of the current user
+     * @param minResidual Optional lower bound on the residual score
+     * @param limit Maximum number of risks, capped at MAX_EXPOSURE_LIMIT
+     */
+    public List<RiskDto> getRisksByResidualExposure(String username, Double minResidual, int limit) {
+        List<String> accessibleProjectIds = projectService.getAccessibleProjectIds(username);
+        if (accessibleProjectIds.isEmpty()) {
+            return List.of();
+        }
+        
+        Criteria criteria = Criteria.where("projectId").in(accessibleProjectIds)
+                .and("status").nin("RESOLVED", "IGNORED", "ACCEPTED");
+        criteria.and("residualScore").gte(minResidual != null ? minResidual : 0.0);
+        
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "residualScore"))
+                .limit(Math.min(Math.max(limit, 1), MAX_EXPOSURE_LIMIT));
+        query.fields().exclude("history");
+        List<Risk> risks = mongoTemplate.find(query, Risk.class);
+        
+        Map<String, String> usernames = referenceLookupService.usernames(
+                risks.stream().map(Risk::getAssignedTo).collect(Collectors.toList()));
+        Map<String, String> projectNames = referenceLookupService.projectNames(
+                risks.stream().map(Risk::getProjectId).collect(Collectors.toList()));
+        
+        return risks.stream()
+                .map(risk -> {
+                    RiskDto dto = copyFields(risk);
+                    dto.setAssignedToUsername(usernames.get(risk.getAssignedTo()));
+                    dto.setProjectName(projectNames.get(risk.getProjectId()));
+                    return dto;
+                })
+                .collect(Collectors.toList());
+    }
+
     public RiskSummaryDto getRiskSummary(String username) {
         RiskSummaryDto summary = new RiskSummaryDto();
         
@@ -215,10 +293,23 @@ public class RiskService {
         return summary;
     }
 
+    /**
+     * The reason GeminiAIService put in an ERROR response, e.g. a timeout or an unreadable reply
+     */
+    private static String analysisError(AIAnalysisResponse response) {
+        if (response.getProjectInsights() != null && response.getProjectInsights().getPrimaryConcerns() != null
+                && response.getProjectInsights().getPrimaryConcerns().length > 0) {
+            return response.getProjectInsights().getPrimaryConcerns()[0].replaceFirst("^Error: ", "");
+        }
+        return "unknown error";
+    }
+
     /**
      * Save AI-generated risks for a project
+     * @param analysisJobId Job the risks come from, stamped on each risk
      */
-    public List<Risk> saveAIGeneratedRisks(String projectId, String userId, List<AIRiskAssessment> aiRisks, List<AIMitigationStrategy> aiMitigations) {
+    public List<Risk> saveAIGeneratedRisks(String projectId, String userId, String analysisJobId,
+                                           List<AIRiskAssessment> aiRisks, List<AIMitigationStrategy> aiMitigations) {
         List<Risk> savedRisks = new ArrayList<>();
         
         // Get project to validate it exists
@@ -242,6 +333,7 @@ public class RiskService {
             // AI-specific fields
             risk.setAiGenerated(true);
             risk.setAiConfidence(aiRisk.getConfidenceScore() != null ? aiRisk.getConfidenceScore() * 100 : null);
+            risk.setAnalysisJobId(analysisJobId);
             
             // Status and timeline
             risk.setStatus("IDENTIFIED");
@@ -280,10 +372,18 @@ public class RiskService {
                     riskRepository.save(savedRisk);
                 }
             }
+            residualRiskService.recompute(savedRisk.getId());
             
             savedRisks.add(savedRisk);
         }
         
+        try {
+            notificationFanoutService.notifyRisksDetected(projectId, savedRisks, userId);
+        } catch (Exception e) {
+            // Alerts are best effort; the analysis result is already saved
+            logger.warn("Failed to send risk alerts for project {}", projectId, e);
+        }
+        
         return savedRisks;
     }
 
@@ -335,6 +435,8 @@ public class RiskService {
         
         // Save the mitigation and return its ID
         Mitigation savedMitigation = mitigationRepository.save(mitigation);
+        costRollupService.applyChange(costRollupService.contributionOf(null),
+                costRollupService.contributionOf(savedMitigation));
         return savedMitigation.getId();
     }
 
@@ -539,6 +641,24 @@ public class RiskService {
     }
 
     private RiskDto convertToDto(Risk risk) {
+        RiskDto dto = copyFields(risk);
+        
+        // Populate assignedToUsername if risk is assigned
+        if (risk.getAssignedTo() != null) {
+            userRepository.findById(risk.getAssignedTo())
+                .ifPresent(user -> dto.setAssignedToUsername(user.getUsername()));
+        }
+        
+        // Fetch project name if projectId exists
+        if (risk.getProjectId() != null) {
+            projectRepository.findById(risk.getProjectId())
+                .ifPresent(project -> dto.setProjectName(project.getName()));
+        }
+        
+        return dto;
+    }
+
+    private RiskDto copyFields(Risk risk) {
         RiskDto dto = new RiskDto();
         dto.setId(risk.getId());
         dto.setTitle(risk.getTitle());
@@ -547,28 +667,15 @@ public class RiskService {
         dto.setSeverity(risk.getSeverity());
         dto.setLikelihood(risk.getLikelihood());
         dto.setRiskScore(risk.getRiskScore());
+        dto.setResidualScore(risk.getResidualScore());
         dto.setStatus(risk.getStatus());
         dto.setProjectId(risk.getProjectId());
         dto.setAssignedTo(risk.getAssignedTo());
-        
-        // Populate assignedToUsername if risk is assigned
-        if (risk.getAssignedTo() != null) {
-            userRepository.findById(risk.getAssignedTo())
-                .ifPresent(user -> dto.setAssignedToUsername(user.getUsername()));
-        }
-        
         dto.setCreatedAt(risk.getCreatedAt());
         dto.setUpdatedAt(risk.getUpdatedAt());
         dto.setResolvedAt(risk.getResolvedAt());
         dto.setCreatedBy(risk.getCreatedBy());
         dto.setAiGenerated(risk.getAiGenerated());
-        
-        // Fetch project name if projectId exists
-        if (risk.getProjectId() != null) {
-            projectRepository.findById(risk.getProjectId())
-                .ifPresent(project -> dto.setProjectName(project.getName()));
-        }
-        
         return dto;
     }
 
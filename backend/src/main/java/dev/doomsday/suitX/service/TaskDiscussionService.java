@@ -0,0 +1,285 @@
+package dev.doomsday.suitX.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import dev.doomsday.suitX.dto.PageResponse;
+import dev.doomsday.suitX.dto.TaskAttachmentDto;
+import dev.doomsday.suitX.dto.TaskCommentDto;
+import dev.doomsday.suitX.model.Task;
+import dev.doomsday.suitX.model.TaskAttachment;
+import dev.doomsday.suitX.model.TaskComment;
+import dev.doomsday.suitX.model.User;
+import dev.doomsday.suitX.repository.TaskAttachmentRepository;
+import dev.doomsday.suitX.repository.TaskCommentRepository;
+import dev.doomsday.suitX.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Service for task comments and attachments
+ * Discussion is stored outside the task document; the task only keeps counters
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskDiscussionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskDiscussionService.class);
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final TaskCommentRepository commentRepository;
+    private final TaskAttachmentRepository attachmentRepository;
+    private final UserRepository userRepository;
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Get a page of comments for a task, newest first
+     */
+    public PageResponse<TaskCommentDto> getComments(String taskId, int page, int size) {
+        PageRequest pageRequest = pageRequest(page, size);
+        Slice<TaskComment> slice = commentRepository.findByTaskIdOrderByCreatedAtDesc(taskId, pageRequest);
+        List<TaskCommentDto> content = slice.getContent().stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+        return new PageResponse<>(content, pageRequest.getPageNumber(), pageRequest.getPageSize(),
+                slice.hasNext(), readCounter(taskId, "commentCount"));
+    }
+
+    /**
+     * Add a comment to a task and bump the task's comment counter
+     */
+    public TaskCommentDto addComment(String taskId, String username, String text) {
+        if (text == null || text.trim().isEmpty()) {
+            throw new IllegalArgumentException("Comment text is required");
+        }
+        TaskComment comment = new TaskComment();
+        comment.setTaskId(taskId);
+        comment.setUserId(resolveUserId(username));
+        comment.setText(text);
+        comment.setCreatedAt(LocalDateTime.now());
+        TaskComment saved = commentRepository.save(comment);
+
+        // Count only once the comment exists, so a failed save never inflates the counter
+        if (!incrementCounter(taskId, "commentCount", 1)) {
+            commentRepository.deleteById(saved.getId());
+            throw new RuntimeException("Task not found with id: " + taskId);
+        }
+        return convertToDto(saved);
+    }
+
+    /**
+     * Delete a comment (only the author can delete it)
+     */
+    public void deleteComment(String taskId, String commentId, String username) {
+        TaskComment comment = commentRepository.findById(commentId)
+                .filter(c -> taskId.equals(c.getTaskId()))
+                .orElseThrow(() -> new RuntimeException("Comment not found"));
+
+        if (!resolveUserId(username).equals(comment.getUserId())) {
+            throw new IllegalArgumentException("Only the author can delete this comment");
+        }
+
+        // A concurrent delete may have removed it already; only the one that removed it decrements
+        if (deleteOne(commentId, taskId, TaskComment.class)) {
+            incrementCounter(taskId, "commentCount", -1);
+        }
+    }
+
+    /**
+     * Get a page of attachments for a task, newest first
+     */
+    public PageResponse<TaskAttachmentDto> getAttachments(String taskId, int page, int size) {
+        PageRequest pageRequest = pageRequest(page, size);
+        Slice<TaskAttachment> slice = attachmentRepository.findByTaskIdOrderByCreatedAtDesc(taskId, pageRequest);
+        List<TaskAttachmentDto> content = slice.getContent().stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+        return new PageResponse<>(content, pageRequest.getPageNumber(), pageRequest.getPageSize(),
+                slice.hasNext(), readCounter(taskId, "attachmentCount"));
+    }
+
+    /**
+     * Add an attachment to a task and bump the task's attachment counter
+     */
+    public TaskAttachmentDto addAttachment(String taskId, String username, TaskAttachmentDto attachmentDto) {
+        if (attachmentDto.getFileName() == null || attachmentDto.getFileUrl() == null) {
+            throw new IllegalArgumentException("File name and URL are required");
+        }
+        TaskAttachment attachment = new TaskAttachment();
+        attachment.setTaskId(taskId);
+        attachment.setFileName(attachmentDto.getFileName());
+        attachment.setFileUrl(attachmentDto.getFileUrl());
+        attachment.setUploadedBy(resolveUserId(username));
+        attachment.setCreatedAt(LocalDateTime.now());
+        TaskAttachment saved = attachmentRepository.save(attachment);
+
+        if (!incrementCounter(taskId, "attachmentCount", 1)) {
+            attachmentRepository.deleteById(saved.getId());
+            throw new RuntimeException("Task not found with id: " + taskId);
+        }
+        return convertToDto(saved);
+    }
+
+    /**
+     * Delete an attachment (only the uploader can delete it)
+     */
+    public void deleteAttachment(String taskId, String attachmentId, String username) {
+        TaskAttachment attachment = attachmentRepository.findById(attachmentId)
+                .filter(a -> taskId.equals(a.getTaskId()))
+                .orElseThrow(() -> new RuntimeException("Attachment not found"));
+
+        if (!resolveUserId(username).equals(attachment.getUploadedBy())) {
+            throw new IllegalArgumentException("Only the uploader can delete this attachment");
+        }
+
+        if (deleteOne(attachmentId, taskId, TaskAttachment.class)) {
+            incrementCounter(taskId, "attachmentCount", -1);
+        }
+    }
+
+    /**
+     * Move comments and attachments still embedded in task documents into their own
+     * collections and replace them with counters. Safe to run on every startup.
+     *
+     * Each migrated document gets an id derived from its task and embedded position and is
+     * upserted, and the counters are set from what the collections hold. If a run stops between
+     * copying and unsetting the embedded arrays, the next run rewrites the same documents and
+     * sets the same counts instead of duplicating them.
+     */
+    public void migrateEmbeddedDiscussions() {
+        String tasksCollection = mongoTemplate.getCollectionName(Task.class);
+        Query legacyTasks = new Query(new Criteria().orOperator(
+                Criteria.where("comments").exists(true),
+                Criteria.where("attachments").exists(true)));
+        legacyTasks.fields().include("comments", "attachments");
+
+        int migrated = 0;
+        for (Document doc : mongoTemplate.find(legacyTasks, Document.class, tasksCollection)) {
+            Object rawId = doc.get("_id");
+            String taskId = rawId.toString();
+
+            List<TaskComment> comments = new ArrayList<>();
+            List<Document> embeddedComments = doc.getList("comments", Document.class, List.of());
+            for (int i = 0; i < embeddedComments.size(); i++) {
+                Document embedded = embeddedComments.get(i);
+                TaskComment comment = new TaskComment();
+                comment.setId(taskId + ":comment:" + i);
+                comment.setTaskId(taskId);
+                comment.setUserId(embedded.getString("userId"));
+                comment.setText(embedded.getString("text"));
+                comment.setCreatedAt(toLocalDateTime(embedded.getDate("createdAt")));
+                comments.add(comment);
+            }
+
+            List<TaskAttachment> attachments = new ArrayList<>();
+            List<Document> embeddedAttachments = doc.getList("attachments", Document.class, List.of());
+            for (int i = 0; i < embeddedAttachments.size(); i++) {
+                Document embedded = embeddedAttachments.get(i);
+                TaskAttachment attachment = new TaskAttachment();
+                attachment.setId(taskId + ":attachment:" + i);
+                attachment.setTaskId(taskId);
+                attachment.setFileName(embedded.getString("fileName"));
+                attachment.setFileUrl(embedded.getString("fileUrl"));
+                attachment.setUploadedBy(embedded.getString("uploadedBy"));
+                attachment.setCreatedAt(toLocalDateTime(embedded.getDate("uploadedAt")));
+                attachments.add(attachment);
+            }
+
+            // saveAll upserts by id, so documents copied by an interrupted run are overwritten
+            commentRepository.saveAll(comments);
+            attachmentRepository.saveAll(attachments);
+
+            Query byTask = new Query(Criteria.where("taskId").is(taskId));
+            Update update = new Update()
+                    .unset("comments")
+                    .unset("attachments")
+                    .set("commentCount", mongoTemplate.count(byTask, TaskComment.class))
+                    .set("attachmentCount", mongoTemplate.count(byTask, TaskAttachment.class));
+            mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(rawId)), update, tasksCollection);
+            migrated++;
+        }
+
+        if (migrated > 0) {
+            logger.info("Moved embedded comments and attachments out of {} tasks", migrated);
+        }
+    }
+
+    /**
+     * Runs against the collection name rather than Task.class, since MongoTemplate would also bump the
+     * task's @Version and make a client's next versioned PATCH fail although no task field changed.
+     * @return false if the task does not exist
+     */
+    private boolean incrementCounter(String taskId, String counter, int delta) {
+        return mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(taskId)),
+                new Update().inc(counter, delta),
+                mongoTemplate.getCollectionName(Task.class)).getMatchedCount() > 0;
+    }
+
+    private boolean deleteOne(String id, String taskId, Class<?> type) {
+        return mongoTemplate.remove(
+                new Query(Criteria.where("_id").is(id).and("taskId").is(taskId)),
+                type).getDeletedCount() == 1;
+    }
+
+    private Long readCounter(String taskId, String counter) {
+        Query query = new Query(Criteria.where("_id").is(taskId));
+        query.fields().include(counter);
+        Task task = mongoTemplate.findOne(query, Task.class);
+        if (task == null) {
+            return 0L;
+        }
+        Integer value = "commentCount".equals(counter) ? task.getCommentCount() : task.getAttachmentCount();
+        return value != null ? value.longValue() : 0L;
+    }
+
+    private String resolveUserId(String username) {
+        return userRepository.findByUsername(username)
+                .map(User::getId)
+                .orElseThrow(() -> new RuntimeException("User not found: " + username));
+    }
+
+    private PageRequest pageRequest(int page, int size) {
+        return PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+    }
+
+    private LocalDateTime toLocalDateTime(Date date) {
+        return date != null ? LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault()) : null;
+    }
+
+    private TaskCommentDto convertToDto(TaskComment comment) {
+        TaskCommentDto dto = new TaskCommentDto();
+        dto.setId(comment.getId());
+        dto.setTaskId(comment.getTaskId());
+        dto.setUserId(comment.getUserId());
+        dto.setText(comment.getText());
+        dto.setCreatedAt(comment.getCreatedAt());
+        return dto;
+    }
+
+    private TaskAttachmentDto convertToDto(TaskAttachment attachment) {
+        TaskAttachmentDto dto = new TaskAttachmentDto();
+        dto.setId(attachment.getId());
+        dto.setTaskId(attachment.getTaskId());
+        dto.setFileName(attachment.getFileName());
+        dto.setFileUrl(attachment.getFileUrl());
+        dto.setUploadedBy(attachment.getUploadedBy());
+        dto.setCreatedAt(attachment.getCreatedAt());
+        return dto;
+    }
+}
@@ -5,6 +5,14 @@ import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -12,23 +20,28 @@ import dev.doomsday.suitX.dto.TaskDto;
 import dev.doomsday.suitX.model.Task;
 import dev.doomsday.suitX.model.User;
 import dev.doomsday.suitX.model.Project;
-import dev.doomsday.suitX.model.Notification;
+import dev.doomsday.suitX.repository.TaskAttachmentRepository;
+import dev.doomsday.suitX.repository.TaskCommentRepository;
 import dev.doomsday.suitX.repository.TaskRepository;
 import dev.doomsday.suitX.repository.ProjectRepository;
 import dev.doomsday.suitX.repository.UserRepository;
-import dev.doomsday.suitX.repository.NotificationRepository;
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
 public class TaskService {
 
+    private static final Logger logger = LoggerFactory.getLogger(TaskService.class);
+
     private final TaskRepository taskRepository;
+    private final TaskCommentRepository taskCommentRepository;
+    private final TaskAttachmentRepository taskAttachmentRepository;
     private final ProjectRepository projectRepository;
     private final ProjectService projectService;
     private final UserRepository userRepository;
-    private final NotificationRepository notificationRepository;
+    private final NotificationService notificationService;
     private final EmailService emailService;
+    private final MongoTemplate mongoTemplate;
 
     public List<TaskDto> getAllTasks() {
         return taskRepository.findAll().stream()
@@ -103,48 +116,103 @@ public class TaskService {
                 .collect(Collectors.toList());
     }
 
-    @Transactional
+    /**
+     * Full update from the task form. The version is checked only when the client sends one.
+     */
     public TaskDto updateTask(String id, TaskDto taskDto) {
-        Optional<Task> existingTask = taskRepository.findById(id);
-        if (existingTask.isPresent()) {
-            Task task = existingTask.get();
-            String projectId = task.getProjectId(); // Store project ID before update
-            String previousAssignee = task.getAssignedTo(); // Store previous assignee
-            
-            // Validate assignedTo user has access to project if being assigned/changed
-            if (taskDto.getAssignedTo() != null && projectId != null && 
-                !taskDto.getAssignedTo().equals(task.getAssignedTo())) {
-                validateTaskAssignment(projectId, taskDto.getAssignedTo());
-            }
-            
-            updateTaskFields(task, taskDto);
-            task.setUpdatedAt(LocalDateTime.now());
-            
-            // If status changed to DONE, set completed date
-            if ("DONE".equals(taskDto.getStatus()) && task.getCompletedAt() == null) {
-                task.setCompletedAt(LocalDateTime.now());
+        return applyUpdate(id, taskDto, false);
+    }
+
+    /**
+     * Partial update: only the non-null fields of the DTO are written, guarded by the task version.
+     * Throws OptimisticLockingFailureException when the task was changed since the client read it.
+     */
+    public TaskDto patchTask(String id, TaskDto taskDto) {
+        if (taskDto.getVersion() == null) {
+            throw new IllegalArgumentException("Task version is required");
+        }
+        return applyUpdate(id, taskDto, true);
+    }
+
+    /**
+     * Turn the non-null DTO fields into a single $set and apply it with findAndModify,
+     * so the task is never read and rewritten as a whole.
+     */
+    private TaskDto applyUpdate(String id, TaskDto taskDto, boolean requireVersion) {
+        String previousAssignee = null;
+        boolean assigneeChanging = false;
+        
+        // Reading the task is only needed to validate a new assignee
+        if (taskDto.getAssignedTo() != null) {
+            Query current = new Query(Criteria.where("_id").is(id));
+            current.fields().include("projectId", "assignedTo");
+            Task existing = mongoTemplate.findOne(current, Task.class);
+            if (existing == null) {
+                throw new RuntimeException("Task not found with id: " + id);
             }
-            // If status changed from DONE to something else, clear completed date
-            else if (!"DONE".equals(taskDto.getStatus()) && task.getCompletedAt() != null) {
-                task.setCompletedAt(null);
+            previousAssignee = existing.getAssignedTo();
+            assigneeChanging = !taskDto.getAssignedTo().equals(previousAssignee);
+            if (assigneeChanging && existing.getProjectId() != null) {
+                validateTaskAssignment(existing.getProjectId(), taskDto.getAssignedTo());
             }
-            
-            Task savedTask = taskRepository.save(task);
-            
-            // Send notification if assignee changed
-            if (savedTask.getAssignedTo() != null && 
-                !savedTask.getAssignedTo().equals(previousAssignee)) {
-                sendTaskAssignmentNotification(savedTask);
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        Update update = buildFieldUpdate(taskDto);
+        update.set("updatedAt", now);
+        update.inc("version", 1);
+        
+        // Keep completedAt in step with the status without reading it:
+        // $min only sets it when missing, so an earlier completion date is kept
+        if (taskDto.getStatus() != null) {
+            if ("DONE".equals(taskDto.getStatus())) {
+                update.min("completedAt", now);
+            } else {
+                update.unset("completedAt");
             }
-            
-            // Update project progress after task status changes
-            if (projectId != null) {
-                projectService.updateProjectProgress(projectId);
+        }
+        
+        Criteria criteria = Criteria.where("_id").is(id);
+        if (requireVersion || taskDto.getVersion() != null) {
+            criteria.and("version").is(taskDto.getVersion());
+        }
+        
+        Task savedTask = mongoTemplate.findAndModify(new Query(criteria), update,
+                FindAndModifyOptions.options().returnNew(true), Task.class);
+        if (savedTask == null) {
+            if (taskRepository.existsById(id)) {
+                throw new OptimisticLockingFailureException(
+                    "Task " + id + " was modified by someone else; reload and try again");
             }
-            
-            return convertToDto(savedTask);
+            throw new RuntimeException("Task not found with id: " + id);
+        }
+        
+        // Send notification if assignee changed
+        if (assigneeChanging && savedTask.getAssignedTo() != null
+                && !savedTask.getAssignedTo().equals(previousAssignee)) {
+            sendTaskAssignmentNotification(savedTask);
+        }
+        
+        // Update project progress after task status changes
+        if (taskDto.getStatus() != null && savedTask.getProjectId() != null) {
+            projectService.updateProjectProgress(savedTask.getProjectId());
+        }
+        
+        return convertToDto(savedTask);
+    }
+
+    /**
+     * Set tasks created before versioning to version 0 so repository saves
+     * update them instead of treating them as new documents
+     */
+    public void backfillVersions() {
+        long updated = mongoTemplate.updateMulti(
+                new Query(Criteria.where("version").exists(false)),
+                new Update().set("version", 0L),
+                Task.class).getModifiedCount();
+        if (updated > 0) {
+            logger.info("Initialized version on {} tasks", updated);
         }
-        throw new RuntimeException("Task not found with id: " + id);
     }
 
     @Transactional
@@ -168,6 +236,10 @@ public class TaskService {
         
         taskRepository.deleteById(id);
         
+        // Remove the task's discussion
+        taskCommentRepository.deleteByTaskId(id);
+        taskAttachmentRepository.deleteByTaskId(id);
+        
         // Update project progress after deleting task
         if (projectId != null) {
             projectService.updateProjectProgress(projectId);
@@ -217,6 +289,9 @@ public class TaskService {
         dto.setActualHours(task.getActualHours());
         dto.setDependencies(task.getDependencies());
         dto.setTags(task.getTags());
+        dto.setCommentCount(task.getCommentCount());
+        dto.setAttachmentCount(task.getAttachmentCount());
+        dto.setVersion(task.getVersion());
         dto.setCreatedAt(task.getCreatedAt());
         dto.setUpdatedAt(task.getUpdatedAt());
         return dto;
@@ -244,18 +319,20 @@ public class TaskService {
         return task;
     }
 
-    private void updateTaskFields(Task task, TaskDto dto) {
-        if (dto.getTitle() != null) task.setTitle(dto.getTitle());
-        if (dto.getDescription() != null) task.setDescription(dto.getDescription());
-        if (dto.getStatus() != null) task.setStatus(dto.getStatus());
-        if (dto.getPriority() != null) task.setPriority(dto.getPriority());
-        if (dto.getAssignedTo() != null) task.setAssignedTo(dto.getAssignedTo());
-        if (dto.getDueDate() != null) task.setDueDate(dto.getDueDate());
-        if (dto.getStartDate() != null) task.setStartDate(dto.getStartDate());
-        if (dto.getEstimatedHours() != null) task.setEstimatedHours(dto.getEstimatedHours());
-        if (dto.getActualHours() != null) task.setActualHours(dto.getActualHours());
-        if (dto.getDependencies() != null) task.setDependencies(dto.getDependencies());
-        if (dto.getTags() != null) task.setTags(dto.getTags());
+    private Update buildFieldUpdate(TaskDto dto) {
+        Update update = new Update();
+        if (dto.getTitle() != null) update.set("title", dto.getTitle());
+        if (dto.getDescription() != null) update.set("description", dto.getDescription());
+        if (dto.getStatus() != null) update.set("status", dto.getStatus());
+        if (dto.getPriority() != null) update.set("priority", dto.getPriority());
+        if (dto.getAssignedTo() != null) update.set("assignedTo", dto.getAssignedTo());
+        if (dto.getDueDate() != null) update.set("dueDate", dto.getDueDate());
+        if (dto.getStartDate() != null) update.set("startDate", dto.getStartDate());
+        if (dto.getEstimatedHours() != null) update.set("estimatedHours", dto.getEstimatedHours());
+        if (dto.getActualHours() != null) update.set("actualHours", dto.getActualHours());
+        if (dto.getDependencies() != null) update.set("dependencies", dto.getDependencies());
+        if (dto.getTags() != null) update.set("tags", dto.getTags());
+        return update;
     }
     
     /**
@@ -296,25 +373,28 @@ public class TaskService {
             Project project = projectOpt.get();
             
             // Create notification
-            Notification notification = new Notification();
-            notification.setUserId(user.getId());
-            notification.setType("TASK_ASSIGNED");
-            notification.setTitle("New Task Assigned");
-            notification.setMessage(String.format(
-                "You have been assigned to task '%s' in project '%s'",
-                task.getTitle(),
-                project.getName()
-            ));
-            notification.setRelatedEntityId(task.getId());
-            notification.setRelatedEntityType("TASK");
-            notification.setIsRead(false);
-            notification.setCreatedAt(LocalDateTime.now());
-            notification.setExpiresAt(LocalDateTime.now().plusDays(30));
+            notificationService.createNotification(
+                user.getId(),
+                "TASK_ASSIGNED",
+                "New Task Assigned",
+                String.format(
+                    "You have been assigned to task '%s' in project '%s'",
+                    task.getTitle(),
+                    project.getName()
+                ),
+                task.getId(),
+                "TASK"
+            );
             
-            notificationRepository.save(notification);
+            // Digest users see this assignment in their weekly email instead
+            if (user.usesWeeklyDigest()) {
+                return;
+            }
             
             // Send email with professional HTML template
             emailService.sendTaskAssignmentEmail(
+                task.getId(),
+                task.getVersion(),
                 user.getEmail(),
                 user.getUsername(),
                 task.getTitle(),
@@ -4,7 +4,6 @@ import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -64,23 +63,15 @@ public class UserService {
         user.setPassword(passwordEncoder.encode(user.getPassword()));
         User savedUser = userRepository.save(user);
         
-        // Send welcome email asynchronously (don't block signup process)
+        // Queued in the email outbox, so signup doesn't wait on SMTP
         try {
-            sendWelcomeEmailAsync(savedUser.getEmail(), savedUser.getUsername());
+            emailService.sendWelcomeEmail(savedUser.getId(), savedUser.getEmail(), savedUser.getUsername());
         } catch (Exception e) {
             // Log the error but don't fail the signup
             logger.error("Failed to send welcome email to {}: {}", savedUser.getEmail(), e.getMessage());
         }
     }
     
-    /**
-     * Sends welcome email asynchronously to avoid blocking the signup process
-     */
-    @Async
-    private void sendWelcomeEmailAsync(String email, String username) {
-        emailService.sendWelcomeEmail(email, username);
-    }
-
     public Optional<User> findByUsername(String username) {
         return userRepository.findByUsername(username);
     }
@@ -0,0 +1,270 @@
+package dev.doomsday.suitX.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import dev.doomsday.suitX.model.Notification;
+import dev.doomsday.suitX.model.Task;
+import dev.doomsday.suitX.model.User;
+
+/**
+ * Sends a weekly digest email to users who opted in with NotificationSettings.weeklyDigest.
+ *
+ * Users are processed in batches: each batch runs one aggregation over notifications and one over
+ * tasks for all of its users, then every digest is rendered from the weekly-digest email template
+ * and queued in the email outbox. The outbox relay only hands the dispatcher as many emails as its
+ * workers can take, which is what bounds the load on the SMTP server. Digest users no longer get
+ * per-event assignment emails.
+ */
+@Service
+public class WeeklyDigestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WeeklyDigestService.class);
+
+    private static final List<String> ASSIGNMENT_TYPES = List.of("TASK_ASSIGNED", "MITIGATION_ASSIGNED");
+    // Matches the item1..item10 slots in templates/email/weekly-digest.html
+    private static final int RECENT_ITEMS = 10;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MMM d");
+
+    private final MongoTemplate mongoTemplate;
+    private final EmailService emailService;
+
+    @Value("${app.digest.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.name}")
+    private String appName;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public WeeklyDigestService(MongoTemplate mongoTemplate, EmailService emailService) {
+        this.mongoTemplate = mongoTemplate;
+        this.emailService = emailService;
+    }
+
+    /**
+     * What one user's digest contains
+     */
+    private record Digest(User user, long total, long unread, long assignments,
+                          long dueSoon, long overdue, List<Document> recent) {
+        boolean isEmpty() {
+            return total == 0 && dueSoon == 0 && overdue == 0;
+        }
+    }
+
+    /**
+     * Send digests to every opted-in user who has not had one in the last six days.
+     * Runs off the scheduler thread, since a run over many users can take a while.
+     */
+    @Async
+    @Scheduled(cron = "${app.digest.cron:0 0 8 * * MON}")
+    public void sendWeeklyDigests() {
+        if (!running.compareAndSet(false, true)) {
+            logger.warn("Weekly digest run already in progress, skipping");
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime since = now.minusDays(7);
+            // Six days so a run that starts a little late still counts as this week's
+            LocalDateTime sentBefore = now.minusDays(6);
+
+            int sent = 0;
+            String lastId = null;
+            List<User> batch;
+            do {
+                batch = nextBatch(lastId, sentBefore);
+                if (!batch.isEmpty()) {
+                    lastId = batch.get(batch.size() - 1).getId();
+                    sent += sendBatch(batch, since, now);
+                }
+            } while (batch.size() == batchSize);
+
+            logger.info("Weekly digest run finished, sent {} emails", sent);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private List<User> nextBatch(String lastId, LocalDateTime sentBefore) {
+        Criteria criteria = Criteria.where("settings.notifications.weeklyDigest").is(true)
+                .and("isActive").ne(false)
+                .orOperator(
+                        Criteria.where("lastWeeklyDigestAt").exists(false),
+                        Criteria.where("lastWeeklyDigestAt").lt(sentBefore));
+        if (lastId != null) {
+            criteria.and("_id").gt(new ObjectId(lastId));
+        }
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.ASC, "_id"))
+                .limit(batchSize);
+        query.fields().include("username", "email", "firstName", "lastName");
+        return mongoTemplate.find(query, User.class);
+    }
+
+    private int sendBatch(List<User> users, LocalDateTime since, LocalDateTime now) {
+        List<String> userIds = users.stream().map(User::getId).toList();
+        Map<String, Document> activity = notificationActivity(userIds, since);
+        Map<String, Document> workload = upcomingWork(userIds, now);
+
+        List<String> done = new ArrayList<>();
+        int sent = 0;
+        for (User user : users) {
+            Digest digest = toDigest(user, activity.get(user.getId()), workload.get(user.getId()));
+            if (digest.isEmpty()) {
+                // Nothing happened this week; don't send an empty email
+                done.add(user.getId());
+                continue;
+            }
+            Map<String, String> variables = variables(digest, since, now);
+            try {
+                // One digest per user per ISO week, even if a run is repeated before users are marked
+                String week = now.get(IsoFields.WEEK_BASED_YEAR) + "-W" + now.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+                if (emailService.sendWeeklyDigestEmail(user.getId(), week, user.getEmail(), variables)) {
+                    sent++;
+                }
+                done.add(user.getId());
+            } catch (Exception e) {
+                // Left unmarked so the next run retries this user
+                logger.warn("Failed to send weekly digest to user {}: {}", user.getId(), e.getMessage());
+            }
+        }
+
+        if (!done.isEmpty()) {
+            mongoTemplate.updateMulti(new Query(Criteria.where("_id").in(done)),
+                    new Update().set("lastWeeklyDigestAt", now), User.class);
+        }
+        return sent;
+    }
+
+    /**
+     * One pipeline for the whole batch: per user counts and the most recent notifications of the week
+     */
+    private Map<String, Document> notificationActivity(List<String> userIds, LocalDateTime since) {
+        Criteria match = Criteria.where("userId").in(userIds).and("createdAt").gte(since);
+        Document sort = new Document("$sort", new Document("createdAt", -1));
+        Document group = new Document("$group", new Document("_id", "$userId")
+                .append("total", new Document("$sum", 1))
+                .append("unread", new Document("$sum", new Document("$cond",
+                        List.of(new Document("$eq", List.of("$isRead", false)), 1, 0))))
+                .append("assignments", new Document("$sum", new Document("$cond",
+                        List.of(new Document("$in", List.of("$type", ASSIGNMENT_TYPES)), 1, 0))))
+                .append("recent", new Document("$push", new Document("title", "$title")
+                        .append("type", "$type")
+                        .append("createdAt", "$createdAt"))));
+        Document project = new Document("$project", new Document("total", 1)
+                .append("unread", 1)
+                .append("assignments", 1)
+                .append("recent", new Document("$slice", List.of("$recent", RECENT_ITEMS))));
+        return byId(aggregate(Notification.class, match, sort, group, project));
+    }
+
+    /**
+     * One pipeline for the whole batch: open assigned tasks that are overdue or due within a week
+     */
+    private Map<String, Document> upcomingWork(List<String> userIds, LocalDateTime now) {
+        Criteria match = Criteria.where("assignedTo").in(userIds)
+                .and("status").ne("DONE")
+                .and("dueDate").lt(now.plusDays(7));
+        // Raw stages are not mapped, so convert the timestamp the same way the entity converter does
+        Date nowDate = Date.from(now.atZone(ZoneId.systemDefault()).toInstant());
+        Document group = new Document("$group", new Document("_id", "$assignedTo")
+                .append("dueSoon", new Document("$sum", new Document("$cond",
+                        List.of(new Document("$gte", List.of("$dueDate", nowDate)), 1, 0))))
+                .append("overdue", new Document("$sum", new Document("$cond",
+                        List.of(new Document("$lt", List.of("$dueDate", nowDate)), 1, 0)))));
+        return byId(aggregate(Task.class, match, group));
+    }
+
+    private List<Document> aggregate(Class<?> type, Criteria match, Document... stages) {
+        List<AggregationOperation> operations = new ArrayList<>();
+        operations.add(Aggregation.match(match));
+        for (Document stage : stages) {
+            operations.add(context -> stage);
+        }
+        TypedAggregation<?> aggregation = Aggregation.newAggregation(type, operations);
+        return mongoTemplate.aggregate(aggregation, Document.class).getMappedResults();
+    }
+
+    private Map<String, Document> byId(List<Document> rows) {
+        Map<String, Document> result = new HashMap<>();
+        for (Document row : rows) {
+            if (row.get("_id") != null) {
+                result.put(row.get("_id").toString(), row);
+            }
+        }
+        return result;
+    }
+
+    private Digest toDigest(User user, Document activity, Document workload) {
+        return new Digest(user,
+                count(activity, "total"),
+                count(activity, "unread"),
+                count(activity, "assignments"),
+                count(workload, "dueSoon"),
+                count(workload, "overdue"),
+                activity != null ? activity.getList("recent", Document.class, List.of()) : List.of());
+    }
+
+    private long count(Document row, String field) {
+        if (row == null || row.get(field) == null) {
+            return 0;
+        }
+        return row.get(field, Number.class).longValue();
+    }
+
+    /**
+     * Template variables for a digest; EmailTemplates escapes them in the HTML part
+     */
+    private Map<String, String> variables(Digest digest, LocalDateTime since, LocalDateTime now) {
+        Map<String, String> variables = new HashMap<>();
+        variables.put("period", DATE_FORMAT.format(since) + " – " + DATE_FORMAT.format(now));
+        variables.put("name", orEmpty(digest.user().getFullName()));
+        variables.put("appName", orEmpty(appName));
+        variables.put("total", String.valueOf(digest.total()));
+        variables.put("unread", String.valueOf(digest.unread()));
+        variables.put("assignments", String.valueOf(digest.assignments()));
+        variables.put("dueSoon", String.valueOf(digest.dueSoon()));
+        variables.put("overdue", String.valueOf(digest.overdue()));
+
+        int slot = 1;
+        for (Document item : digest.recent()) {
+            Object createdAt = item.get("createdAt");
+            variables.put("item" + slot, orEmpty(item.getString("title")));
+            variables.put("item" + slot + "Date", createdAt instanceof Date date
+                    ? DATE_FORMAT.format(LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault()))
+                    : "");
+            slot++;
+        }
+        return variables;
+    }
+
+    private static String orEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
@@ -0,0 +1,202 @@
+package dev.doomsday.suitX.service;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.project;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.bson.Document;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import dev.doomsday.suitX.config.CacheConfig;
+import dev.doomsday.suitX.dto.AssigneeWorkloadDto;
+import dev.doomsday.suitX.model.Mitigation;
+import dev.doomsday.suitX.model.Project;
+import dev.doomsday.suitX.model.Task;
+import dev.doomsday.suitX.model.User;
+import dev.doomsday.suitX.repository.ProjectRepository;
+import dev.doomsday.suitX.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Aggregates task hours and open mitigations per assignee across the projects a user manages.
+ * Everything is computed in two $group pipelines; the result is cached briefly per user.
+ */
+@Service
+@RequiredArgsConstructor
+public class WorkloadService {
+
+    private final MongoTemplate mongoTemplate;
+    private final ProjectRepository projectRepository;
+    private final UserRepository userRepository;
+    private final ReferenceLookupService referenceLookupService;
+
+    /**
+     * Get the workload of every assignee on the user's managed projects
+     * @param username Manager's username
+     * @param from Optional first due date to include (inclusive)
+     * @param to Optional last due date to include (exclusive)
+     */
+    @Cacheable(cacheNames = CacheConfig.WORKLOAD, key = "{#username, #from, #to}")
+    public List<AssigneeWorkloadDto> getWorkloadForManager(String username, LocalDate from, LocalDate to) {
+        String userId = userRepository.findByUsername(username)
+                .map(User::getId)
+                .orElseThrow(() -> new RuntimeException("User not found: " + username));
+
+        List<Project> projects = projectRepository.findManagedProjectTeams(username, userId);
+        if (projects.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> projectIds = projects.stream().map(Project::getId).collect(Collectors.toList());
+        Set<String> assignees = new LinkedHashSet<>();
+        for (Project project : projects) {
+            if (project.getOwnerId() != null) {
+                assignees.add(project.getOwnerId());
+            }
+            if (project.getMemberIds() != null) {
+                assignees.addAll(project.getMemberIds());
+            }
+        }
+
+        Map<String, AssigneeWorkloadDto> workloads = new TreeMap<>();
+        aggregateTasks(assignees, projectIds, from, to).forEach(row -> {
+            AssigneeWorkloadDto.WeekBucket bucket = bucketFor(workloads, row);
+            bucket.setEstimatedHours(number(row, "estimatedHours"));
+            bucket.setActualHours(number(row, "actualHours"));
+            bucket.setTaskCount((long) number(row, "taskCount"));
+            bucket.setOpenTaskCount((long) number(row, "openTaskCount"));
+        });
+        aggregateOpenMitigations(assignees, projectIds, from, to).forEach(row -> {
+            AssigneeWorkloadDto.WeekBucket bucket = bucketFor(workloads, row);
+            bucket.setOpenMitigationCount((long) number(row, "openMitigationCount"));
+        });
+
+        Map<String, String> usernames = referenceLookupService.usernames(workloads.keySet());
+        List<AssigneeWorkloadDto> result = new ArrayList<>(workloads.values());
+        for (AssigneeWorkloadDto workload : result) {
+            workload.setUsername(usernames.get(workload.getUserId()));
+            workload.getWeeks().sort(Comparator.comparing(AssigneeWorkloadDto.WeekBucket::getWeekStart,
+                    Comparator.nullsLast(Comparator.naturalOrder())));
+            for (AssigneeWorkloadDto.WeekBucket week : workload.getWeeks()) {
+                workload.setEstimatedHours(workload.getEstimatedHours() + week.getEstimatedHours());
+                workload.setActualHours(workload.getActualHours() + week.getActualHours());
+                workload.setTaskCount(workload.getTaskCount() + week.getTaskCount());
+                workload.setOpenTaskCount(workload.getOpenTaskCount() + week.getOpenTaskCount());
+                workload.setOpenMitigationCount(workload.getOpenMitigationCount() + week.getOpenMitigationCount());
+            }
+        }
+        result.sort(Comparator.comparingDouble(AssigneeWorkloadDto::getEstimatedHours).reversed());
+        return result;
+    }
+
+    /**
+     * Task hours per (assignee, ISO week of dueDate).
+     * The match leads with assignedTo so the planner can use assignee_status_idx.
+     */
+    private List<Document> aggregateTasks(Set<String> assignees, List<String> projectIds,
+                                          LocalDate from, LocalDate to) {
+        Criteria criteria = Criteria.where("assignedTo").in(assignees).and("projectId").in(projectIds);
+        applyDueDateRange(criteria, from, to);
+
+        Aggregation aggregation = newAggregation(
+            match(criteria),
+            project("assignedTo", "estimatedHours", "actualHours")
+                .and(DateOperators.dateOf("dueDate").isoWeekYear()).as("isoYear")
+                .and(DateOperators.dateOf("dueDate").isoWeek()).as("isoWeek")
+                .and(ConditionalOperators.when(Criteria.where("status").ne("DONE")).then(1).otherwise(0)).as("open"),
+            group("assignedTo", "isoYear", "isoWeek")
+                .sum("estimatedHours").as("estimatedHours")
+                .sum("actualHours").as("actualHours")
+                .count().as("taskCount")
+                .sum("open").as("openTaskCount")
+        );
+        return mongoTemplate.aggregate(aggregation, Task.class, Document.class).getMappedResults();
+    }
+
+    /**
+     * Open mitigation counts per (assignee, ISO week of dueDate)
+     */
+    private List<Document> aggregateOpenMitigations(Set<String> assignees, List<String> projectIds,
+                                                    LocalDate from, LocalDate to) {
+        Criteria criteria = Criteria.where("assignee").in(assignees)
+                .and("projectId").in(projectIds)
+                .and("status").nin("COMPLETED", "CANCELLED");
+        applyDueDateRange(criteria, from, to);
+
+        Aggregation aggregation = newAggregation(
+            match(criteria),
+            project()
+                .and("assignee").as("assignedTo")
+                .and(DateOperators.dateOf("dueDate").isoWeekYear()).as("isoYear")
+                .and(DateOperators.dateOf("dueDate").isoWeek()).as("isoWeek"),
+            group("assignedTo", "isoYear", "isoWeek")
+                .count().as("openMitigationCount")
+        );
+        return mongoTemplate.aggregate(aggregation, Mitigation.class, Document.class).getMappedResults();
+    }
+
+    private void applyDueDateRange(Criteria criteria, LocalDate from, LocalDate to) {
+        if (from != null && to != null) {
+            criteria.and("dueDate").gte(from.atStartOfDay()).lt(to.atStartOfDay());
+        } else if (from != null) {
+            criteria.and("dueDate").gte(from.atStartOfDay());
+        } else if (to != null) {
+            criteria.and("dueDate").lt(to.atStartOfDay());
+        }
+    }
+
+    private AssigneeWorkloadDto.WeekBucket bucketFor(Map<String, AssigneeWorkloadDto> workloads, Document row) {
+        Document key = row.get("_id", Document.class);
+        String assignee = key.getString("assignedTo");
+        LocalDate weekStart = weekStart(key.get("isoYear"), key.get("isoWeek"));
+
+        AssigneeWorkloadDto workload = workloads.computeIfAbsent(assignee, id -> {
+            AssigneeWorkloadDto dto = new AssigneeWorkloadDto();
+            dto.setUserId(id);
+            return dto;
+        });
+        for (AssigneeWorkloadDto.WeekBucket bucket : workload.getWeeks()) {
+            if (weekStart == null ? bucket.getWeekStart() == null : weekStart.equals(bucket.getWeekStart())) {
+                return bucket;
+            }
+        }
+        AssigneeWorkloadDto.WeekBucket bucket = new AssigneeWorkloadDto.WeekBucket();
+        bucket.setWeekStart(weekStart);
+        workload.getWeeks().add(bucket);
+        return bucket;
+    }
+
+    private LocalDate weekStart(Object isoYear, Object isoWeek) {
+        if (!(isoYear instanceof Number) || !(isoWeek instanceof Number)) {
+            return null; // No due date
+        }
+        return LocalDate.of(((Number) isoYear).intValue(), 1, 4)
+                .with(IsoFields.WEEK_OF_WEEK_BASED_YEAR, ((Number) isoWeek).longValue())
+                .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private double number(Document row, String field) {
+        Object value = row.get(field);
+        return value instanceof Number ? ((Number) value).doubleValue() : 0.0;
+    }
+}
@@ -0,0 +1,123 @@
+package dev.doomsday.suitX.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+
+class EmailDispatcherTest {
+
+    private EmailDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    void retriesUntilTheSendSucceeds() throws Exception {
+        StandInMailSender sender = new StandInMailSender(2);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        dispatcher = new EmailDispatcher(sender, registry, "noreply@suitx.com", 1, 10, 5, 10, 100);
+
+        assertTrue(dispatcher.dispatch(email()));
+
+        assertTrue(sender.delivered.await(5, TimeUnit.SECONDS));
+        assertEquals(3, sender.attempts.get());
+        assertEquals(1, sender.sent.size());
+        assertEquals("Hello", sender.sent.get(0).getSubject());
+        assertEquals(2.0, registry.counter("email.retried").count());
+        assertTrue(dispatcher.getDeadLetters().isEmpty());
+    }
+
+    @Test
+    void deadLettersAfterMaxAttempts() throws Exception {
+        StandInMailSender sender = new StandInMailSender(Integer.MAX_VALUE);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        dispatcher = new EmailDispatcher(sender, registry, "noreply@suitx.com", 1, 10, 3, 10, 100);
+
+        dispatcher.dispatch(email());
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (dispatcher.getDeadLetters().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        List<EmailDispatcher.DeadLetter> dead = dispatcher.getDeadLetters();
+        assertEquals(1, dead.size());
+        assertEquals(3, dead.get(0).attempts());
+        assertEquals(3, sender.attempts.get());
+        assertEquals(1.0, registry.counter("email.dead").count());
+    }
+
+    @Test
+    void backoffDoublesAndIsCapped() {
+        dispatcher = new EmailDispatcher(new StandInMailSender(0), new SimpleMeterRegistry(),
+                "noreply@suitx.com", 1, 10, 5, 2000, 10000);
+
+        assertEquals(2000, dispatcher.backoff(1));
+        assertEquals(4000, dispatcher.backoff(2));
+        assertEquals(8000, dispatcher.backoff(3));
+        assertEquals(10000, dispatcher.backoff(4));
+        assertEquals(10000, dispatcher.backoff(40));
+    }
+
+    private static EmailDispatcher.OutgoingEmail email() {
+        return new EmailDispatcher.OutgoingEmail("user@example.com", "Hello", "<p>Hi</p>", "Hi", "test");
+    }
+
+    /**
+     * Stands in for the SMTP server: fails the first N sends, then accepts and records messages
+     */
+    private static class StandInMailSender implements JavaMailSender {
+
+        private final int failures;
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final List<MimeMessage> sent = new CopyOnWriteArrayList<>();
+        private final CountDownLatch delivered = new CountDownLatch(1);
+
+        StandInMailSender(int failures) {
+            this.failures = failures;
+        }
+
+        @Override
+        public MimeMessage createMimeMessage() {
+            return new MimeMessage((Session) null);
+        }
+
+        @Override
+        public MimeMessage createMimeMessage(InputStream contentStream) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void send(MimeMessage... mimeMessages) {
+            if (attempts.incrementAndGet() <= failures) {
+                throw new MailSendException("SMTP unavailable");
+            }
+            sent.addAll(List.of(mimeMessages));
+            delivered.countDown();
+        }
+
+        @Override
+        public void send(SimpleMailMessage... simpleMessages) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package dev.doomsday.suitX.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+class EmailTemplatesTest {
+
+    private final EmailTemplates templates;
+
+    EmailTemplatesTest() throws Exception {
+        this.templates = new EmailTemplates();
+    }
+
+    @Test
+    void escapesVariablesInHtmlButNotInText() {
+        EmailTemplates.Rendered rendered = templates.render("task-assignment", taskVariables("<b>Tom & \"Jerry\"</b>"));
+
+        assertTrue(rendered.html().contains("Hello &lt;b&gt;Tom &amp; &quot;Jerry&quot;&lt;/b&gt;,"));
+        assertFalse(rendered.html().contains("<b>Tom"));
+        assertTrue(rendered.text().contains("Hello <b>Tom & \"Jerry\"</b>,"));
+        assertFalse(rendered.text().contains("<div"));
+        assertFalse(rendered.text().contains("{{"));
+    }
+
+    @Test
+    void rendersSectionsOnlyWhenTheVariableIsSet() {
+        Map<String, String> variables = taskVariables("alice");
+        assertTrue(templates.render("task-assignment", variables).html().contains("Description:"));
+
+        variables.put("description", "");
+        EmailTemplates.Rendered rendered = templates.render("task-assignment", variables);
+        assertFalse(rendered.html().contains("Description:"));
+        assertFalse(rendered.text().contains("Description:"));
+    }
+
+    @Test
+    void plainTextKeepsLinks() {
+        String text = templates.render("welcome", Map.of("username", "alice")).text();
+
+        assertTrue(text.contains("Welcome to SuitX, alice!"));
+        assertTrue(text.contains("Get Started: http://localhost:5173/launchpad"));
+        assertFalse(text.contains("font-family"));
+    }
+
+    @Test
+    void weeklyDigestListsOnlyTheItemsGiven() {
+        Map<String, String> variables = new HashMap<>(Map.of("name", "Alice", "appName", "SuitX",
+                "period", "Oct 12 – Oct 19", "total", "2", "unread", "1", "assignments", "1",
+                "dueSoon", "0", "overdue", "3"));
+        EmailTemplates.Rendered empty = templates.render("weekly-digest", variables);
+        assertFalse(empty.html().contains("Latest notifications"));
+        assertTrue(empty.text().contains("Overdue tasks: 3"));
+
+        variables.put("item1", "Task <Report> assigned");
+        variables.put("item1Date", "Oct 18");
+        EmailTemplates.Rendered rendered = templates.render("weekly-digest", variables);
+        assertTrue(rendered.html().contains("Task &lt;Report&gt; assigned"));
+        assertTrue(rendered.text().contains("Latest notifications"));
+        assertTrue(rendered.text().contains("- Task <Report> assigned Oct 18"));
+        assertFalse(rendered.text().contains("item2"));
+    }
+
+    @Test
+    void rejectsUnknownTemplatesAndUnclosedSections() {
+        assertThrows(IllegalArgumentException.class, () -> templates.render("missing", Map.of()));
+        assertThrows(IllegalArgumentException.class, () -> EmailTemplate.compile("broken", "{{#a}}x"));
+        assertEquals("x\n", EmailTemplate.compile("ok", "{{#a}}x{{/a}}").renderText(Map.of("a", "1")));
+    }
+
+    /**
+     * Not a strict benchmark (no JMH in this build); prints renders per second for each template.
+     * Excluded from the default test run, run it with mvn test -Dgroups=benchmark -DexcludedGroups=
+     */
+    @Test
+    @Tag("benchmark")
+    void benchmarkRendersPerSecond() {
+        Map<String, Map<String, String>> cases = Map.of(
+                "welcome", Map.of("username", "alice"),
+                "task-assignment", taskVariables("alice"),
+                "mitigation-assignment", taskVariables("alice"),
+                "project-invitation", Map.of("username", "alice", "projectName", "Apollo",
+                        "invitedBy", "bob", "message", "Join us", "expiryDate", "2026-01-01"),
+                "weekly-digest", Map.of("name", "Alice", "appName", "SuitX", "total", "12", "unread", "4",
+                        "item1", "Task assigned", "item1Date", "Oct 18", "item2", "Risk updated", "item2Date", "Oct 17"));
+
+        int warmup = 5_000;
+        int iterations = 20_000;
+        cases.forEach((name, variables) -> {
+            long checksum = 0;
+            for (int i = 0; i < warmup; i++) {
+                checksum += templates.render(name, variables).html().length();
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                EmailTemplates.Rendered rendered = templates.render(name, variables);
+                checksum += rendered.html().length() + rendered.text().length();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("email template %-22s %,10.0f renders/s (checksum %d)%n",
+                    name, iterations / seconds, checksum);
+            assertTrue(checksum > 0);
+        });
+    }
+
+    private static Map<String, String> taskVariables(String username) {
+        Map<String, String> variables = new HashMap<>();
+        variables.put("priorityColor", "#dc2626");
+        variables.put("username", username);
+        variables.put("taskTitle", "Write the report");
+        variables.put("mitigationTitle", "Add a fallback supplier");
+        variables.put("projectName", "Apollo");
+        variables.put("priority", "HIGH");
+        variables.put("dueDate", "2026-01-01");
+        variables.put("description", "Summarise the quarter's risks");
+        return variables;
+    }
+}
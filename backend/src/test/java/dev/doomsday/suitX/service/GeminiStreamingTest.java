@@ -0,0 +1,231 @@
+package dev.doomsday.suitX.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import dev.doomsday.suitX.config.GeminiClientConfig;
+import dev.doomsday.suitX.dto.AIAnalysisRequest;
+import dev.doomsday.suitX.dto.AIAnalysisResponse;
+import dev.doomsday.suitX.dto.AIMitigationStrategy;
+import dev.doomsday.suitX.dto.AIProjectInsights;
+import dev.doomsday.suitX.dto.AIRiskAssessment;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Streams analyses from a local stub of streamGenerateContent that splits the model's text at
+ * arbitrary character positions, including inside strings and numbers. Each piece is sent as its
+ * own JSON-encoded event, so UTF-8 byte sequences are never split on the wire.
+ * Calls go through the same pooled client GeminiClientConfig builds for the application.
+ */
+class GeminiStreamingTest {
+
+    private static final long READ_TIMEOUT_MS = 500;
+
+    private static final String ANALYSIS = """
+            ```json
+            {"identifiedRisks": [
+              {"riskId": "R1", "title": "Vendor lock-in", "probability": 60.5, "earlyWarningIndicators": ["a", "b"]},
+              {"riskId": "R2", "title": "Schedule slip – café launch", "probability": 40}
+            ],
+            "suggestedMitigations": [
+              {"mitigationId": "M1", "riskId": "R1", "title": "Abstract the storage layer", "responsibleRoles": ["Tech Lead"]}
+            ],
+            "projectInsights": {"overallRiskLevel": "MEDIUM", "totalRisksIdentified": 2}}
+            ```""";
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final AIAnalysisCache cache = mock(AIAnalysisCache.class);
+    private final List<String> requestedQueries = new CopyOnWriteArrayList<>();
+    private final List<String> requestedKeys = new CopyOnWriteArrayList<>();
+    private final List<String> requestedEncodings = new CopyOnWriteArrayList<>();
+    private final CountDownLatch released = new CountDownLatch(1);
+
+    private HttpServer server;
+    private CloseableHttpClient httpClient;
+    private GeminiAIService service;
+    private volatile StubResponse stub;
+
+    private interface StubResponse {
+        void write(OutputStream body) throws Exception;
+    }
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/v1beta/models/", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        GeminiClientConfig config = new GeminiClientConfig();
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        httpClient = config.geminiHttpClient(meterRegistry, 1000, READ_TIMEOUT_MS, 4, 30000);
+        RestTemplate restTemplate = config.geminiRestTemplate(new RestTemplateBuilder(), httpClient, "test-key");
+
+        service = new GeminiAIService(objectMapper, cache, restTemplate);
+        ReflectionTestUtils.setField(service, "totalTimeoutMs", 30000L);
+        ReflectionTestUtils.setField(service, "apiUrl",
+                "http://localhost:" + server.getAddress().getPort() + "/v1beta/models/test-model:generateContent");
+    }
+
+    @AfterEach
+    void stopStub() throws IOException {
+        released.countDown();
+        httpClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    void emitsRisksBeforeTheStreamEnds() throws Exception {
+        CountDownLatch firstRisk = new CountDownLatch(1);
+        CountDownLatch secondRisk = new CountDownLatch(1);
+        List<Boolean> waited = new CopyOnWriteArrayList<>();
+        int split = ANALYSIS.indexOf("Schedule slip") + 5;
+        stub = body -> {
+            writeEvents(body, ANALYSIS.substring(0, split), 11);
+            // Hold the rest back until the client has seen the first risk
+            waited.add(firstRisk.await(5, TimeUnit.SECONDS));
+            writeEvents(body, ANALYSIS.substring(split), 7);
+        };
+
+        List<AIRiskAssessment> risks = new ArrayList<>();
+        List<AIMitigationStrategy> mitigations = new ArrayList<>();
+        List<AIProjectInsights> insights = new ArrayList<>();
+        AIAnalysisResponse response = service.analyzeProjectRisks(request(), new GeminiAIService.AnalysisListener() {
+            @Override
+            public void onRisk(AIRiskAssessment risk) {
+                risks.add(risk);
+                (risks.size() == 1 ? firstRisk : secondRisk).countDown();
+            }
+
+            @Override
+            public void onMitigation(AIMitigationStrategy mitigation) {
+                mitigations.add(mitigation);
+            }
+
+            @Override
+            public void onInsights(AIProjectInsights projectInsights) {
+                insights.add(projectInsights);
+            }
+        });
+
+        assertEquals(List.of(true), waited, "first risk should arrive while the stream is still open");
+        assertEquals("SUCCESS", response.getStatus());
+        assertEquals(List.of("R1", "R2"), risks.stream().map(AIRiskAssessment::getRiskId).toList());
+        assertEquals(60.5, risks.get(0).getProbability());
+        assertEquals("Schedule slip – café launch", risks.get(1).getTitle());
+        assertEquals("Abstract the storage layer", mitigations.get(0).getTitle());
+        assertEquals("MEDIUM", insights.get(0).getOverallRiskLevel());
+        assertEquals(risks, response.getIdentifiedRisks());
+        assertEquals(mitigations, response.getSuggestedMitigations());
+
+        assertEquals("alt=sse", requestedQueries.get(0));
+        assertEquals(List.of("test-key"), requestedKeys);
+        assertTrue(requestedEncodings.get(0).contains("gzip"));
+        verify(cache).put(anyString(), eq("test-model"), eq(response));
+    }
+
+    @Test
+    void keepsCompletedRisksWhenTheStreamIsCutOff() {
+        stub = body -> writeEvents(body, ANALYSIS.substring(0, ANALYSIS.indexOf("Schedule slip")), 13);
+
+        AIAnalysisResponse response = service.analyzeProjectRisks(request(), GeminiAIService.AnalysisListener.NONE);
+
+        assertEquals("PARTIAL", response.getStatus());
+        assertEquals(1, response.getIdentifiedRisks().size());
+        assertNull(response.getProjectInsights());
+        verify(cache, never()).put(anyString(), anyString(), any());
+    }
+
+    @Test
+    void reportsAnErrorWhenNoRiskCompletes() {
+        stub = body -> writeEvents(body, "I cannot help with that.", 5);
+
+        AIAnalysisResponse response = service.analyzeProjectRisks(request(), GeminiAIService.AnalysisListener.NONE);
+
+        assertEquals("ERROR", response.getStatus());
+        assertTrue(response.getIdentifiedRisks().isEmpty());
+    }
+
+    @Test
+    void givesUpOnAHungUpstream() {
+        stub = body -> {
+            writeEvents(body, ANALYSIS.substring(0, 20), 20);
+            released.await(10, TimeUnit.SECONDS);
+        };
+
+        long start = System.nanoTime();
+        AIAnalysisResponse response = service.analyzeProjectRisks(request(), GeminiAIService.AnalysisListener.NONE);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals("ERROR", response.getStatus());
+        assertTrue(elapsedMs < READ_TIMEOUT_MS * 4, "took " + elapsedMs + " ms");
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestedQueries.add(String.valueOf(exchange.getRequestURI().getQuery()));
+        requestedKeys.add(exchange.getRequestHeaders().getFirst("x-goog-api-key"));
+        requestedEncodings.add(String.valueOf(exchange.getRequestHeaders().getFirst("Accept-Encoding")));
+        exchange.getRequestBody().readAllBytes();
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream body = exchange.getResponseBody()) {
+            stub.write(body);
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Write text as Gemini SSE chunks of the given size, flushing each one
+     */
+    private void writeEvents(OutputStream body, String text, int chunkSize) throws IOException {
+        for (int start = 0; start < text.length(); start += chunkSize) {
+            String piece = text.substring(start, Math.min(text.length(), start + chunkSize));
+            Map<String, Object> chunk = Map.of("candidates", List.of(
+                    Map.of("content", Map.of("role", "model", "parts", List.of(Map.of("text", piece))))));
+            body.write(("data: " + objectMapper.writeValueAsString(chunk) + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+            body.flush();
+        }
+    }
+
+    private AIAnalysisRequest request() {
+        AIAnalysisRequest request = new AIAnalysisRequest();
+        request.setProjectName("Streaming test");
+        request.setProjectDescription("A project used to exercise the streaming parser");
+        return request;
+    }
+}
@@ -0,0 +1,169 @@
+package dev.doomsday.suitX.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.Address;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.URLName;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+
+class PooledJavaMailSenderTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void reusesAPooledConnectionAcrossSends() throws Exception {
+        StandInSender sender = new StandInSender(2, 10);
+
+        sender.send(message(sender, "first"));
+        sender.send(message(sender, "second"));
+        sender.send(message(sender, "third"));
+
+        assertEquals(1, sender.opened.size());
+        assertEquals(3, sender.opened.get(0).sent.size());
+        assertTrue(sender.opened.get(0).isConnected());
+        assertEquals(1.0, registry.counter("email.smtp.messages", "connection", "new").count());
+        assertEquals(2.0, registry.counter("email.smtp.messages", "connection", "reused").count());
+    }
+
+    @Test
+    void closesAConnectionAfterMaxMessages() throws Exception {
+        StandInSender sender = new StandInSender(1, 2);
+
+        sender.send(message(sender, "1"), message(sender, "2"), message(sender, "3"), message(sender, "4"), message(sender, "5"));
+
+        assertEquals(3, sender.opened.size());
+        assertEquals(List.of(2, 2, 1), sender.opened.stream().map(transport -> transport.sent.size()).toList());
+        assertFalse(sender.opened.get(0).isConnected());
+        assertFalse(sender.opened.get(1).isConnected());
+        assertTrue(sender.opened.get(2).isConnected());
+        assertEquals(3.0, registry.counter("email.smtp.connections.opened").count());
+    }
+
+    @Test
+    void retriesOnANewConnectionWhenAReusedOneFails() throws Exception {
+        StandInSender sender = new StandInSender(1, 10);
+        sender.failOn.add(2);
+
+        sender.send(message(sender, "first"));
+        sender.send(message(sender, "second"));
+
+        assertEquals(2, sender.opened.size());
+        assertFalse(sender.opened.get(0).isConnected());
+        assertEquals(List.of("second"), subjects(sender.opened.get(1)));
+        assertEquals(1.0, registry.counter("email.smtp.reconnects").count());
+    }
+
+    @Test
+    void dropsAConnectionOnceASendOnItFails() throws Exception {
+        StandInSender sender = new StandInSender(1, 10);
+        // The second message fails on the first connection and again on the reconnect
+        sender.failOn.add(2);
+        sender.failOn.add(1);
+
+        MailSendException failure = assertThrows(MailSendException.class,
+                () -> sender.send(message(sender, "first"), message(sender, "rejected"), message(sender, "third")));
+
+        assertEquals(1, failure.getFailedMessages().size());
+        assertEquals(3, sender.opened.size());
+        assertEquals(2, sender.opened.get(0).attempts, "closed connection should not be tried again");
+        assertEquals(List.of("third"), subjects(sender.opened.get(2)));
+        assertEquals(1.0, registry.counter("email.smtp.reconnects").count());
+
+        sender.send(message(sender, "later"));
+        assertEquals(3, sender.opened.size());
+        assertEquals(List.of("third", "later"), subjects(sender.opened.get(2)));
+    }
+
+    private static MimeMessage message(StandInSender sender, String subject) throws MessagingException {
+        MimeMessage message = sender.createMimeMessage();
+        message.setFrom(new InternetAddress("noreply@suitx.com"));
+        message.setRecipient(Message.RecipientType.TO, new InternetAddress("user@example.com"));
+        message.setSubject(subject);
+        message.setText("Hi");
+        return message;
+    }
+
+    private static List<String> subjects(StandInTransport transport) throws MessagingException {
+        List<String> subjects = new ArrayList<>();
+        for (Message message : transport.sent) {
+            subjects.add(message.getSubject());
+        }
+        return subjects;
+    }
+
+    /**
+     * Hands out stand-in transports instead of connecting to an SMTP server
+     */
+    private class StandInSender extends PooledJavaMailSender {
+
+        private final List<StandInTransport> opened = new ArrayList<>();
+        // Transport-wide message numbers (1-based) at which the next opened transport fails
+        private final Deque<Integer> failOn = new ArrayDeque<>();
+
+        StandInSender(int poolSize, int maxMessagesPerConnection) {
+            super(registry, poolSize, maxMessagesPerConnection, 60_000);
+        }
+
+        @Override
+        protected Transport connectTransport() {
+            StandInTransport transport = new StandInTransport(getSession(), failOn.isEmpty() ? -1 : failOn.poll());
+            opened.add(transport);
+            return transport;
+        }
+    }
+
+    /**
+     * Records messages; a closed transport refuses to send, like a dropped SMTP connection
+     */
+    private static class StandInTransport extends Transport {
+
+        private final int failOn;
+        private final List<Message> sent = new ArrayList<>();
+        private int attempts;
+        private boolean open = true;
+
+        StandInTransport(Session session, int failOn) {
+            super(session, new URLName("smtp://localhost"));
+            this.failOn = failOn;
+        }
+
+        @Override
+        public void sendMessage(Message message, Address[] addresses) throws MessagingException {
+            attempts++;
+            if (!open) {
+                throw new MessagingException("Not connected");
+            }
+            if (attempts == failOn) {
+                throw new MessagingException("Connection reset");
+            }
+            sent.add(message);
+        }
+
+        @Override
+        public boolean isConnected() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package dev.doomsday.suitX.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoExceptionTranslator;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.result.UpdateResult;
+
+import dev.doomsday.suitX.dto.TaskDto;
+import dev.doomsday.suitX.model.TaskComment;
+import dev.doomsday.suitX.model.User;
+import dev.doomsday.suitX.repository.ProjectRepository;
+import dev.doomsday.suitX.repository.TaskAttachmentRepository;
+import dev.doomsday.suitX.repository.TaskCommentRepository;
+import dev.doomsday.suitX.repository.TaskRepository;
+import dev.doomsday.suitX.repository.UserRepository;
+
+/**
+ * Runs the real MongoTemplate against a stand-in tasks collection holding one document, so the
+ * updates the services send (including anything MongoTemplate adds for @Version) are applied.
+ */
+class TaskDiscussionServiceTest {
+
+    private final ObjectId taskId = new ObjectId();
+    private final Document stored = new Document("_id", taskId)
+            .append("title", "Write the report")
+            .append("version", 3L)
+            .append("commentCount", 0)
+            .append("attachmentCount", 0);
+
+    private final TaskCommentRepository commentRepository = mock(TaskCommentRepository.class);
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    private TaskDiscussionService discussionService;
+    private TaskService taskService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MongoCollection<Document> tasks = mock(MongoCollection.class);
+        when(tasks.updateOne(any(Bson.class), any(Bson.class), any(UpdateOptions.class))).thenAnswer(call -> {
+            boolean matched = apply(call.getArgument(0), call.getArgument(1));
+            return UpdateResult.acknowledged(matched ? 1 : 0, matched ? 1L : 0L, null);
+        });
+        when(tasks.findOneAndUpdate(any(Bson.class), any(Bson.class), any(FindOneAndUpdateOptions.class)))
+                .thenAnswer(call -> apply(call.getArgument(0), call.getArgument(1)) ? new Document(stored) : null);
+
+        MongoDatabase database = mock(MongoDatabase.class);
+        when(database.getCollection(eq("tasks"), eq(Document.class))).thenReturn(tasks);
+        MongoDatabaseFactory factory = mock(MongoDatabaseFactory.class);
+        when(factory.getMongoDatabase()).thenReturn(database);
+        when(factory.getExceptionTranslator()).thenReturn(new MongoExceptionTranslator());
+        MongoTemplate mongoTemplate = new MongoTemplate(factory);
+
+        User user = new User();
+        user.setId("user-1");
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user));
+        when(commentRepository.save(any(TaskComment.class))).thenAnswer(call -> {
+            TaskComment comment = call.getArgument(0);
+            comment.setId(new ObjectId().toHexString());
+            return comment;
+        });
+        when(taskRepository.existsById(taskId.toHexString())).thenReturn(true);
+
+        discussionService = new TaskDiscussionService(commentRepository, mock(TaskAttachmentRepository.class),
+                userRepository, mongoTemplate);
+        taskService = new TaskService(taskRepository, commentRepository, mock(TaskAttachmentRepository.class),
+                mock(ProjectRepository.class), mock(ProjectService.class), userRepository,
+                mock(NotificationService.class), mock(EmailService.class), mongoTemplate);
+    }
+
+    @Test
+    void commentingKeepsTheTaskVersion() {
+        TaskDto before = new TaskDto();
+        before.setVersion(3L);
+
+        discussionService.addComment(taskId.toHexString(), "alice", "Looks good");
+
+        assertEquals(1, stored.get("commentCount"));
+        assertEquals(3L, stored.get("version"));
+
+        before.setTitle("Write the final report");
+        TaskDto patched = taskService.patchTask(taskId.toHexString(), before);
+        assertEquals("Write the final report", patched.getTitle());
+        assertEquals(4L, patched.getVersion());
+        assertEquals(1, patched.getCommentCount());
+    }
+
+    /**
+     * Apply $set and $inc to the stored task if every filter field equals the stored value
+     */
+    private boolean apply(Bson filter, Bson update) {
+        for (Map.Entry<String, Object> condition : ((Document) filter).entrySet()) {
+            if (!Objects.equals(stored.get(condition.getKey()), condition.getValue())) {
+                return false;
+            }
+        }
+        Document operations = (Document) update;
+        operations.get("$set", new Document()).forEach(stored::put);
+        operations.get("$inc", new Document()).forEach((field, delta) -> {
+            Number current = (Number) stored.get(field);
+            if (current instanceof Long) {
+                stored.put(field, current.longValue() + ((Number) delta).longValue());
+            } else {
+                stored.put(field, current.intValue() + ((Number) delta).intValue());
+            }
+        });
+        return true;
+    }
+}
@@ -7,6 +7,7 @@ const AIAssistant = ({ isOpen, onClose, onResultsGenerated }) => {
   const [error, setError] = useState(null);
   const [results, setResults] = useState(null);
   const [currentStep, setCurrentStep] = useState('input'); // 'input', 'analyzing', 'results'
+  const [streamedRisks, setStreamedRisks] = useState([]); // risks received while the analysis runs
 
   const handleInputChange = (field, value) => {
     setAnalysisRequest(prev => ({
@@ -28,10 +29,13 @@ const AIAssistant = ({ isOpen, onClose, onResultsGenerated }) => {
       }
 
       setLoading(true);
+      setStreamedRisks([]);
       setCurrentStep('analyzing');
       
-      // Call AI service
-      const response = await analyzeProjectRisks(analysisRequest);
+      // Call AI service; risks are shown as they arrive
+      const response = await analyzeProjectRisks(analysisRequest, {
+        onRisk: (risk) => setStreamedRisks(prev => [...prev, risk]),
+      });
       
       setResults(response);
       setCurrentStep('results');
@@ -102,7 +106,7 @@ const AIAssistant = ({ isOpen, onClose, onResultsGenerated }) => {
           )}
 
           {currentStep === 'analyzing' && (
-            <AnalyzingState />
+            <AnalyzingState risks={streamedRisks} />
           )}
 
           {currentStep === 'results' && results && (
@@ -278,7 +282,7 @@ const InputForm = ({ analysisRequest, onInputChange, onAnalyze, loading, error }
 );
 
 // Analyzing State Component  
-const AnalyzingState = () => (
+const AnalyzingState = ({ risks = [] }) => (
   <div className="text-center py-12">
     <div className="flex justify-center mb-6">
       <div className="w-16 h-16 bg-gradient-to-r from-purple-600 to-blue-600 rounded-full flex items-center justify-center animate-pulse">
@@ -295,6 +299,19 @@ const AnalyzingState = () => (
       <div className="w-2 h-2 bg-purple-600 rounded-full animate-bounce" style={{ animationDelay: '0.1s' }}></div>
       <div className="w-2 h-2 bg-purple-600 rounded-full animate-bounce" style={{ animationDelay: '0.2s' }}></div>
     </div>
+    {risks.length > 0 && (
+      <div className="mt-8 text-left space-y-2">
+        <p className="text-sm font-medium text-gray-700">Risks identified so far ({risks.length})</p>
+        {risks.map((risk, index) => (
+          <div key={risk.riskId || index} className="flex items-center justify-between border border-gray-200 rounded-md px-4 py-2">
+            <span className="text-sm text-gray-900">{risk.title}</span>
+            {risk.priority && (
+              <span className="text-xs font-medium text-gray-600">{risk.priority}</span>
+            )}
+          </div>
+        ))}
+      </div>
+    )}
   </div>
 );
 
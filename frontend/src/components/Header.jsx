@@ -25,14 +25,31 @@ const Header = ({ isLanding = false }) => {
       }
 
       fetchCurrentUser();
-      fetchUnreadCount();
       fetchPendingInvitations();
-      // Poll for new notifications and invitations every 30 seconds
-      const interval = setInterval(() => {
-        fetchUnreadCount();
-        fetchPendingInvitations();
-      }, 30000);
-      return () => clearInterval(interval);
+
+      // Unread count arrives over the notification stream; poll only if the stream fails
+      let countInterval = null;
+      const startCountPolling = () => {
+        if (!countInterval) {
+          fetchUnreadCount();
+          countInterval = setInterval(fetchUnreadCount, 30000);
+        }
+      };
+      const closeStream = NotificationService.subscribe({
+        onUnreadCount: setUnreadCount,
+        onResync: fetchUnreadCount,
+        onError: startCountPolling
+      });
+
+      // Poll for new invitations every 30 seconds
+      const interval = setInterval(fetchPendingInvitations, 30000);
+      return () => {
+        closeStream();
+        clearInterval(interval);
+        if (countInterval) {
+          clearInterval(countInterval);
+        }
+      };
     }
   }, [isLanding]);
 
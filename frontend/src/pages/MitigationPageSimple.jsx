@@ -14,6 +14,8 @@ const MitigationPage = () => {
     activeMitigations: 0
   });
   const [mitigations, setMitigations] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [projects, setProjects] = useState({});
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState(null);
@@ -63,13 +65,13 @@ const MitigationPage = () => {
           // Use default values if API fails
         }
 
-        // Try to fetch mitigations
+        // Try to fetch the first page of mitigations
         try {
-          const mitigationsData = await MitigationService.getAllMitigations();
-          setMitigations(Array.isArray(mitigationsData) ? mitigationsData : []);
+          await loadMitigations();
         } catch (err) {
           console.warn('Mitigations data not available:', err.message);
           setMitigations([]);
+          setNextCursor(null);
         }
 
       } catch (error) {
@@ -83,6 +85,26 @@ const MitigationPage = () => {
     fetchData();
   }, []);
 
+  // Reload from the first page, e.g. after a change; further pages load on demand
+  const loadMitigations = async () => {
+    const page = await MitigationService.getMitigationsPage();
+    setMitigations(Array.isArray(page.items) ? page.items : []);
+    setNextCursor(page.nextCursor);
+  };
+
+  const loadMore = async () => {
+    try {
+      setLoadingMore(true);
+      const page = await MitigationService.getMitigationsPage({ cursor: nextCursor });
+      setMitigations((current) => [...current, ...page.items]);
+      setNextCursor(page.nextCursor);
+    } catch (error) {
+      console.error('Error fetching more mitigations:', error);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const filteredMitigations = selectedStatus === 'All' 
     ? mitigations 
     : mitigations.filter(mitigation => mitigation.status?.toUpperCase() === selectedStatus.toUpperCase());
@@ -91,8 +113,7 @@ const MitigationPage = () => {
     try {
       await MitigationService.markAsCompleted(mitigationId);
       // Refresh mitigations data
-      const updatedMitigations = await MitigationService.getAllMitigations();
-      setMitigations(Array.isArray(updatedMitigations) ? updatedMitigations : []);
+      await loadMitigations();
       
       // Refresh summary
       const summary = await MitigationService.getMitigationSummary();
@@ -114,8 +135,7 @@ const MitigationPage = () => {
     try {
       await MitigationService.deleteMitigation(mitigationId);
       // Refresh mitigations data
-      const updatedMitigations = await MitigationService.getAllMitigations();
-      setMitigations(Array.isArray(updatedMitigations) ? updatedMitigations : []);
+      await loadMitigations();
       
       // Refresh summary
       const summary = await MitigationService.getMitigationSummary();
@@ -233,8 +253,7 @@ const MitigationPage = () => {
       await MitigationService.updateMitigation(editingMitigation.id, updateData);
       
       // Refresh mitigations data
-      const updatedMitigations = await MitigationService.getAllMitigations();
-      setMitigations(Array.isArray(updatedMitigations) ? updatedMitigations : []);
+      await loadMitigations();
       
       // Refresh summary
       try {
@@ -608,6 +627,17 @@ const MitigationPage = () => {
             <p className="text-gray-600">No mitigations available for the selected status. Add some mitigations to get started!</p>
           </div>
         )}
+        {!loading && nextCursor && (
+          <div className="text-center pt-4">
+            <button
+              onClick={loadMore}
+              disabled={loadingMore}
+              className="px-4 py-2 text-sm font-medium text-blue-600 hover:text-blue-700 hover:bg-blue-50 rounded-lg transition-colors disabled:opacity-50"
+            >
+              {loadingMore ? 'Loading...' : 'Load more'}
+            </button>
+          </div>
+        )}
       </div>
 
       {/* AI Assistant Modal */}
@@ -6,17 +6,31 @@ function NotificationsPage() {
   const [notifications, setNotifications] = useState([]);
   const [loading, setLoading] = useState(true);
   const [filter, setFilter] = useState('all'); // 'all', 'unread', 'read'
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
+  const [unreadCount, setUnreadCount] = useState(0);
 
-  // Fetch notifications on component mount
+  // Fetch the first page whenever the filter changes
   useEffect(() => {
     fetchNotifications();
+  }, [filter]);
+
+  useEffect(() => {
+    fetchUnreadCount();
   }, []);
 
+  const readFilter = () => {
+    if (filter === 'unread') return false;
+    if (filter === 'read') return true;
+    return null;
+  };
+
   const fetchNotifications = async () => {
     try {
       setLoading(true);
-      const data = await NotificationService.getUserNotifications();
-      setNotifications(data);
+      const page = await NotificationService.getFeed({ read: readFilter() });
+      setNotifications(page.items);
+      setNextCursor(page.nextCursor);
     } catch (error) {
       console.error('Error fetching notifications:', error);
     } finally {
@@ -24,12 +38,34 @@ function NotificationsPage() {
     }
   };
 
+  const loadMore = async () => {
+    try {
+      setLoadingMore(true);
+      const page = await NotificationService.getFeed({ read: readFilter(), cursor: nextCursor });
+      setNotifications((current) => [...current, ...page.items]);
+      setNextCursor(page.nextCursor);
+    } catch (error) {
+      console.error('Error fetching more notifications:', error);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
+  const fetchUnreadCount = async () => {
+    try {
+      setUnreadCount(await NotificationService.getUnreadCount());
+    } catch (error) {
+      console.error('Error fetching unread count:', error);
+    }
+  };
+
   const markAsRead = async (id) => {
     try {
       await NotificationService.markAsRead(id);
-      setNotifications(notifications.map(notif => 
-        notif.id === id ? { ...notif, isRead: true, readAt: new Date().toISOString() } : notif
-      ));
+      setNotifications(notifications
+        .map(notif => notif.id === id ? { ...notif, isRead: true } : notif)
+        .filter(notif => filter !== 'unread' || !notif.isRead));
+      fetchUnreadCount();
     } catch (error) {
       console.error('Error marking notification as read:', error);
     }
@@ -38,11 +74,8 @@ function NotificationsPage() {
   const markAllAsRead = async () => {
     try {
       await NotificationService.markAllAsRead();
-      setNotifications(notifications.map(notif => ({ 
-        ...notif, 
-        isRead: true, 
-        readAt: new Date().toISOString() 
-      })));
+      setUnreadCount(0);
+      fetchNotifications();
     } catch (error) {
       console.error('Error marking all notifications as read:', error);
     }
@@ -52,6 +85,7 @@ function NotificationsPage() {
     try {
       await NotificationService.deleteNotification(id);
       setNotifications(notifications.filter(notif => notif.id !== id));
+      fetchUnreadCount();
     } catch (error) {
       console.error('Error deleting notification:', error);
     }
@@ -110,13 +144,8 @@ function NotificationsPage() {
     }
   };
 
-  const filteredNotifications = notifications.filter(notif => {
-    if (filter === 'unread') return !notif.isRead;
-    if (filter === 'read') return notif.isRead;
-    return true;
-  });
-
-  const unreadCount = notifications.filter(n => !n.isRead).length;
+  // The feed is already filtered by the server
+  const filteredNotifications = notifications;
 
   return (
     <div className="flex-1 p-8 bg-gray-50">
@@ -155,7 +184,7 @@ function NotificationsPage() {
                 : 'border-transparent text-gray-500 hover:text-gray-700 hover:border-gray-300'
             }`}
           >
-            All ({notifications.length})
+            All
           </button>
           <button
             onClick={() => setFilter('unread')}
@@ -175,7 +204,7 @@ function NotificationsPage() {
                 : 'border-transparent text-gray-500 hover:text-gray-700 hover:border-gray-300'
             }`}
           >
-            Read ({notifications.length - unreadCount})
+            Read
           </button>
         </div>
       </div>
@@ -254,6 +283,17 @@ function NotificationsPage() {
             </div>
           ))
         )}
+        {!loading && nextCursor && (
+          <div className="text-center pt-4">
+            <button
+              onClick={loadMore}
+              disabled={loadingMore}
+              className="px-4 py-2 text-sm font-medium text-blue-600 hover:text-blue-700 hover:bg-blue-50 rounded-lg transition-colors disabled:opacity-50"
+            >
+              {loadingMore ? 'Loading...' : 'Load more'}
+            </button>
+          </div>
+        )}
       </div>
     </div>
   );
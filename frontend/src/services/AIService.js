@@ -1,4 +1,5 @@
 import { API_BASE_URL } from '../utils/apiConfig';
+import { getStreamToken } from '../utils/jwtUtils';
 
 // Get JWT token from localStorage
 const getToken = () => {
@@ -7,7 +8,9 @@ const getToken = () => {
 };
 
 // AI Risk Analysis Service
-export async function analyzeProjectRisks(analysisRequest) {
+// Optional handlers ({ onRisk, onMitigation, onInsights }) receive each part of the
+// analysis as soon as the AI has written it, before the whole analysis is done.
+export async function analyzeProjectRisks(analysisRequest, handlers) {
   try {
     const token = getToken();
     const headers = {
@@ -29,13 +32,103 @@ export async function analyzeProjectRisks(analysisRequest) {
       throw new Error(errorData.message || errorData.error || `HTTP ${response.status}: ${response.statusText}`);
     }
     
-    return await response.json();
+    // The analysis runs as a background job; wait for its result
+    const job = await waitForAnalysisJob(await response.json(), handlers);
+    return job.analysis;
   } catch (error) {
     console.error('Error analyzing project risks:', error);
     throw error;
   }
 }
 
+const JOB_POLL_INTERVAL_MS = 2000;
+const JOB_TIMEOUT_MS = 10 * 60 * 1000;
+
+// Wait for an analysis job to finish. Resolves with the finished job, whose
+// analysis (form requests) or risks (projects) hold the result. With handlers the
+// job's event stream is used so partial results arrive as they are produced;
+// otherwise, or if the stream fails, the job is polled.
+export async function waitForAnalysisJob(job, handlers) {
+  if (handlers && typeof EventSource !== 'undefined' && localStorage.getItem('token')) {
+    try {
+      return checkFinishedJob(await streamAnalysisJob(job.id, handlers));
+    } catch (error) {
+      console.warn('Analysis job stream failed, polling instead:', error);
+    }
+  }
+
+  const deadline = Date.now() + JOB_TIMEOUT_MS;
+  let current = job;
+  while (current.status === 'QUEUED' || current.status === 'RUNNING') {
+    if (Date.now() > deadline) {
+      throw new Error('Risk analysis is taking too long, please check back later');
+    }
+    await new Promise((resolve) => setTimeout(resolve, JOB_POLL_INTERVAL_MS));
+    current = await getAnalysisJob(current.id);
+  }
+  return checkFinishedJob(current);
+}
+
+function checkFinishedJob(job) {
+  if (job.status === 'FAILED' && !job.analysis) {
+    throw new Error(job.error || 'Risk analysis failed');
+  }
+  return job;
+}
+
+// Follow a job's server-sent events until it finishes; resolves with the finished job
+async function streamAnalysisJob(jobId, { onRisk, onMitigation, onInsights, onStage } = {}) {
+  // EventSource cannot send headers, so a short-lived stream token goes in the query string
+  const streamToken = await getStreamToken();
+  return new Promise((resolve, reject) => {
+    const source = new EventSource(`${API_BASE_URL}/api/ai/jobs/${jobId}/events?token=${encodeURIComponent(streamToken)}`);
+    const timeout = setTimeout(() => {
+      source.close();
+      reject(new Error('Risk analysis is taking too long, please check back later'));
+    }, JOB_TIMEOUT_MS);
+
+    source.addEventListener('job', (event) => {
+      const job = JSON.parse(event.data);
+      onStage?.(job.stage);
+      if (job.status === 'SUCCEEDED' || job.status === 'FAILED') {
+        clearTimeout(timeout);
+        source.close();
+        resolve(job);
+      }
+    });
+    source.addEventListener('risk', (event) => onRisk?.(JSON.parse(event.data)));
+    source.addEventListener('mitigation', (event) => onMitigation?.(JSON.parse(event.data)));
+    source.addEventListener('insights', (event) => onInsights?.(JSON.parse(event.data)));
+    source.onerror = () => {
+      // The server closes the stream once the job is done; anything else is a failure
+      clearTimeout(timeout);
+      source.close();
+      reject(new Error('Lost connection to the analysis job'));
+    };
+  });
+}
+
+// Get the current state of an analysis job
+export async function getAnalysisJob(jobId) {
+  const token = getToken();
+  const headers = {
+    'Content-Type': 'application/json',
+  };
+  
+  if (token) {
+    headers['Authorization'] = token;
+  }
+
+  const response = await fetch(`${API_BASE_URL}/api/ai/jobs/${jobId}`, {
+    headers: headers,
+  });
+  
+  if (!response.ok) {
+    throw new Error(`Failed to fetch analysis job: ${response.status}`);
+  }
+  return await response.json();
+}
+
 // Health check for AI service
 export async function checkAIServiceHealth() {
   try {
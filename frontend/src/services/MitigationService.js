@@ -7,7 +7,12 @@ const getToken = () => {
 };
 
 class MitigationService {
-  async getAllMitigations() {
+  /**
+   * Get one page of the user's mitigations; pass the returned nextCursor to get the next one
+   * @param {Object} options - { cursor, limit }
+   * @returns {Promise<{items: Array, nextCursor: string|null, hasMore: boolean}>}
+   */
+  async getMitigationsPage({ cursor, limit } = {}) {
     try {
       const token = getToken();
       const headers = {
@@ -18,7 +23,10 @@ class MitigationService {
         headers['Authorization'] = token;
       }
 
-      const response = await fetch(`${API_BASE_URL}/api/mitigations/user`, {
+      const params = new URLSearchParams();
+      if (cursor) params.append('cursor', cursor);
+      if (limit) params.append('limit', limit);
+      const response = await fetch(`${API_BASE_URL}/api/mitigations/user?${params}`, {
         headers: headers,
       });
       if (!response.ok) {
@@ -165,7 +173,18 @@ class MitigationService {
 
   async getMitigationSummary() {
     try {
-      const response = await fetch(`${API_BASE_URL}/api/mitigations/summary`);
+      const token = getToken();
+      const headers = {
+        'Content-Type': 'application/json',
+      };
+      
+      if (token) {
+        headers['Authorization'] = token;
+      }
+
+      const response = await fetch(`${API_BASE_URL}/api/mitigations/summary`, {
+        headers: headers,
+      });
       if (!response.ok) {
         throw new Error('Failed to fetch mitigation summary');
       }
@@ -1,6 +1,7 @@
 import axios from 'axios';
 
 import { API_BASE_URL } from '../utils/apiConfig';
+import { getStreamToken } from '../utils/jwtUtils';
 
 const API_URL = `${API_BASE_URL}/api/notifications`;
 
@@ -26,6 +27,29 @@ const NotificationService = {
     }
   },
 
+  /**
+   * Get one page of the notification feed, newest first
+   * @param {Object} options - { read, types, priority, cursor, limit }
+   * @returns {Promise<{items: Array, nextCursor: string|null, hasMore: boolean}>}
+   */
+  getFeed: async ({ read, types, priority, cursor, limit } = {}) => {
+    try {
+      const params = new URLSearchParams();
+      if (read !== undefined && read !== null) params.append('read', read);
+      (types || []).forEach((type) => params.append('type', type));
+      if (priority) params.append('priority', priority);
+      if (cursor) params.append('cursor', cursor);
+      if (limit) params.append('limit', limit);
+      const response = await axios.get(`${API_URL}/feed?${params.toString()}`, {
+        headers: getAuthHeader()
+      });
+      return response.data;
+    } catch (error) {
+      console.error('Error fetching notification feed:', error);
+      throw error;
+    }
+  },
+
   /**
    * Get only unread notifications
    */
@@ -56,6 +80,80 @@ const NotificationService = {
     }
   },
 
+  /**
+   * Subscribe to live notification events. Returns a function that closes the stream.
+   * The browser reconnects on its own and resumes from the last event it received; once
+   * the stream token has expired a new stream is opened with a fresh token, resuming
+   * from the same event. onError is called only when the stream cannot be reopened.
+   */
+  subscribe: ({ onUnreadCount, onNotification, onResync, onError } = {}) => {
+    if (!localStorage.getItem('token') || typeof EventSource === 'undefined') {
+      onError?.();
+      return () => {};
+    }
+
+    let source = null;
+    let closed = false;
+    let lastEventId = null;
+    let failures = 0;
+
+    const track = (handler) => (event) => {
+      failures = 0;
+      if (event.lastEventId) {
+        lastEventId = event.lastEventId;
+      }
+      handler(event);
+    };
+
+    const connect = async () => {
+      let streamToken;
+      try {
+        streamToken = await getStreamToken();
+      } catch (error) {
+        console.error('Error opening notification stream:', error);
+        onError?.();
+        return;
+      }
+      if (closed) {
+        return;
+      }
+
+      const params = new URLSearchParams({ token: streamToken });
+      if (lastEventId) {
+        params.set('lastEventId', lastEventId);
+      }
+      source = new EventSource(`${API_URL}/stream?${params}`);
+
+      source.addEventListener('unread-count', track((event) => {
+        onUnreadCount?.(JSON.parse(event.data).count);
+      }));
+      source.addEventListener('notification', track((event) => {
+        onNotification?.(JSON.parse(event.data));
+      }));
+      source.addEventListener('resync', track(() => {
+        onResync?.();
+      }));
+      source.onerror = () => {
+        if (source.readyState !== EventSource.CLOSED || closed) {
+          return;
+        }
+        // Usually an expired stream token on reconnect; retry a few times with a new one
+        failures += 1;
+        if (failures > 3) {
+          onError?.();
+        } else {
+          setTimeout(connect, 1000 * failures);
+        }
+      };
+    };
+
+    connect();
+    return () => {
+      closed = true;
+      source?.close();
+    };
+  },
+
   /**
    * Mark a notification as read
    */
@@ -72,13 +170,14 @@ const NotificationService = {
   },
 
   /**
-   * Mark all notifications as read
+   * Mark all notifications as read, returning how many were updated
    */
   markAllAsRead: async () => {
     try {
-      await axios.put(`${API_URL}/read-all`, {}, {
+      const response = await axios.put(`${API_URL}/read-all`, {}, {
         headers: getAuthHeader()
       });
+      return response.data.updated;
     } catch (error) {
       console.error('Error marking all notifications as read:', error);
       throw error;
@@ -100,13 +199,14 @@ const NotificationService = {
   },
 
   /**
-   * Delete all read notifications
+   * Delete all read notifications, returning how many were deleted
    */
   deleteReadNotifications: async () => {
     try {
-      await axios.delete(`${API_URL}/read`, {
+      const response = await axios.delete(`${API_URL}/read`, {
         headers: getAuthHeader()
       });
+      return response.data.deleted;
     } catch (error) {
       console.error('Error deleting read notifications:', error);
       throw error;
@@ -1,4 +1,5 @@
 import { API_BASE_URL } from '../utils/apiConfig';
+import { waitForAnalysisJob } from './AIService';
 
 // Get JWT token from localStorage
 const getToken = () => {
@@ -191,7 +192,9 @@ export async function analyzeProjectRisks(projectId) {
       throw new Error(`Failed to analyze project risks: ${response.status}`);
     }
     
-    return await response.json();
+    // The analysis runs as a background job; wait for the saved risks
+    const job = await waitForAnalysisJob(await response.json());
+    return job.risks || [];
   } catch (error) {
     console.error('Error analyzing project risks:', error);
     throw error;
@@ -1,3 +1,5 @@
+import { API_BASE_URL } from './apiConfig';
+
 /**
  * Decode JWT token to get payload
  * @param {string} token - JWT token
@@ -89,3 +91,21 @@ export function getCurrentUserId() {
     return null;
   }
 }
+
+/**
+ * Get a short-lived token for opening a server-sent event stream.
+ * EventSource cannot send headers, so the token goes in the stream URL; the session
+ * token never does. Stream tokens expire after a minute, so fetch one per connection.
+ * @returns {Promise<string>} - Stream token
+ */
+export async function getStreamToken() {
+  const token = localStorage.getItem('token');
+  const response = await fetch(`${API_BASE_URL}/auth/stream-token`, {
+    method: 'POST',
+    headers: token ? { Authorization: `Bearer ${token}` } : {},
+  });
+  if (!response.ok) {
+    throw new Error(`Failed to get stream token: ${response.status}`);
+  }
+  return (await response.json()).token;
+}